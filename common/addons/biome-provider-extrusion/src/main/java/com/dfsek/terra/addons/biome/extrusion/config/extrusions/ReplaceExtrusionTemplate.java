@@ -5,6 +5,7 @@ import com.dfsek.tectonic.api.config.template.annotations.Value;
 import com.dfsek.terra.addons.biome.extrusion.api.Extrusion;
 import com.dfsek.terra.addons.biome.extrusion.api.ReplaceableBiome;
 import com.dfsek.terra.addons.biome.extrusion.extrusions.ReplaceExtrusion;
+import com.dfsek.terra.addons.biome.query.api.BiomeQuery;
 import com.dfsek.terra.api.config.meta.Meta;
 import com.dfsek.terra.api.util.collection.ProbabilityCollection;
 
@@ -13,11 +14,14 @@ public class ReplaceExtrusionTemplate extends SamplerExtrusionTemplate {
     @Value("to")
     private @Meta ProbabilityCollection<@Meta ReplaceableBiome> biomes;
 
+    /**
+     * Tag query the biomes to replace must match, e.g. {@code OCEAN & !FROZEN}. A plain tag name matches biomes with that tag.
+     */
     @Value("from")
-    private @Meta String fromTag;
+    private @Meta BiomeQuery from;
 
     @Override
     public Extrusion get() {
-        return new ReplaceExtrusion(sampler, range, biomes, fromTag);
+        return new ReplaceExtrusion(sampler, range, biomes, from);
     }
 }
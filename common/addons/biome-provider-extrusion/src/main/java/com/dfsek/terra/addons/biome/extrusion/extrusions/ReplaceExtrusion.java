@@ -8,7 +8,6 @@ import java.util.stream.Collectors;
 
 import com.dfsek.terra.addons.biome.extrusion.api.Extrusion;
 import com.dfsek.terra.addons.biome.extrusion.api.ReplaceableBiome;
-import com.dfsek.terra.addons.biome.query.api.BiomeQueries;
 import com.dfsek.terra.api.util.collection.ProbabilityCollection;
 import com.dfsek.terra.api.util.collection.TriStateIntCache;
 import com.dfsek.terra.api.util.range.Range;
@@ -25,11 +24,12 @@ public class ReplaceExtrusion implements Extrusion {
     private final Predicate<Biome> hasTag;
     private final TriStateIntCache cache;
 
-    public ReplaceExtrusion(Sampler sampler, Range range, ProbabilityCollection<ReplaceableBiome> biomes, String tag) {
+    public ReplaceExtrusion(Sampler sampler, Range range, ProbabilityCollection<ReplaceableBiome> biomes,
+                            Predicate<Biome> hasTag) {
         this.sampler = sampler;
         this.range = range;
         this.biomes = biomes;
-        this.hasTag = BiomeQueries.has(tag);
+        this.hasTag = hasTag;
         this.cache = new TriStateIntCache(Biome.INT_ID_COUNTER.get());
     }
 
@@ -9,42 +9,75 @@ package com.dfsek.terra.addons.biome.pipeline;
 
 import com.dfsek.seismic.type.sampler.Sampler;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Scheduler;
 
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.StreamSupport;
 
 import com.dfsek.terra.addons.biome.pipeline.api.BiomeChunk;
 import com.dfsek.terra.addons.biome.pipeline.api.Pipeline;
 import com.dfsek.terra.addons.biome.pipeline.api.Stage;
 import com.dfsek.terra.addons.biome.pipeline.api.biome.PipelineBiome;
+import com.dfsek.terra.api.profiler.jfr.BiomeChunkEvent;
 import com.dfsek.terra.api.registry.key.StringIdentifiable;
 import com.dfsek.terra.api.util.Column;
+import com.dfsek.terra.api.util.cache.CacheUtils;
 import com.dfsek.terra.api.util.cache.SeededVector2Key;
 import com.dfsek.terra.api.world.biome.Biome;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 
+import static com.dfsek.terra.api.util.cache.CacheUtils.CACHE_EXECUTOR;
 
-public class PipelineBiomeProvider implements BiomeProvider {
 
-    private final LoadingCache<SeededVector2Key, BiomeChunk> biomeChunkCache;
+public class PipelineBiomeProvider implements BiomeProvider {
+    /*
+     * Shared between all pipeline providers, neighbor precomputation is best-effort, so excess requests are simply dropped
+     * rather than queued behind generation.
+     */
+    private static final ExecutorService PRECOMPUTE_EXECUTOR = createPrecomputeExecutor();
+    /**
+     * Maximum number of seeds to keep chunk caches for, the least recently used seed's cache is dropped beyond it.
+     */
+    private static final int MAX_SEEDS = 8;
+
+    private final Cache<Long, SeedCache> seedCaches = Caffeine
+        .newBuilder()
+        .executor(CACHE_EXECUTOR)
+        .maximumSize(MAX_SEEDS)
+        .build();
+    private final Pipeline pipeline;
+    private final int cacheSize;
+    private final boolean precomputeNeighbors;
     private final int chunkSize;
     private final int resolution;
     private final Sampler mutator;
     private final double noiseAmp;
     private final Set<Biome> biomes;
+    private volatile SeedCache lastSeedCache;
 
     public PipelineBiomeProvider(Pipeline pipeline, int resolution, Sampler mutator, double noiseAmp) {
+        this(pipeline, resolution, mutator, noiseAmp, 64, false);
+    }
+
+    public PipelineBiomeProvider(Pipeline pipeline, int resolution, Sampler mutator, double noiseAmp, int cacheSize,
+                                 boolean precomputeNeighbors) {
+        this.pipeline = pipeline;
         this.resolution = resolution;
         this.mutator = mutator;
         this.noiseAmp = noiseAmp;
+        this.cacheSize = cacheSize;
+        this.precomputeNeighbors = precomputeNeighbors;
         this.chunkSize = pipeline.getChunkSize();
-        this.biomeChunkCache = Caffeine.newBuilder()
-            .maximumSize(64)
-            .build(pipeline::generateChunk);
 
         Set<PipelineBiome> biomeSet = new HashSet<>();
         pipeline.getSource().getBiomes().forEach(biomeSet::add);
@@ -91,13 +124,92 @@ public class PipelineBiomeProvider implements BiomeProvider {
         int chunkX = Math.floorDiv(x, chunkSize);
         int chunkZ = Math.floorDiv(z, chunkSize);
 
-        int chunkWorldX = chunkX * chunkSize;
-        int chunkWorldZ = chunkZ * chunkSize;
+        int xInChunk = x - chunkX * chunkSize;
+        int zInChunk = z - chunkZ * chunkSize;
+
+        return getChunk(chunkX, chunkZ, seed).get(xInChunk, zInChunk).getBiome();
+    }
+
+    private BiomeChunk getChunk(int chunkX, int chunkZ, long seed) {
+        SeedCache seedCache = getSeedCache(seed);
+        long key = pack(chunkX, chunkZ);
+        BiomeChunk chunk = seedCache.cache.getIfPresent(key);
+        if(chunk == null) {
+            // Caffeine computes atomically per key, so concurrent misses on the same pipeline chunk only generate it once.
+            chunk = seedCache.cache.get(key);
+            if(precomputeNeighbors) precomputeNeighbors(seedCache, chunkX, chunkZ);
+        }
+        return chunk;
+    }
+
+    private SeedCache getSeedCache(long seed) {
+        SeedCache seedCache = lastSeedCache;
+        if(seedCache == null || seedCache.seed != seed) {
+            seedCache = seedCaches.get(seed, this::createSeedCache);
+            lastSeedCache = seedCache;
+        }
+        return seedCache;
+    }
+
+    private SeedCache createSeedCache(long seed) {
+        LoadingCache<Long, BiomeChunk> cache = CacheUtils
+            .recordStats(Caffeine.newBuilder(), "pipeline_biome_chunk")
+            .executor(CACHE_EXECUTOR)
+            .scheduler(Scheduler.systemScheduler())
+            .initialCapacity(cacheSize)
+            .maximumSize(cacheSize)
+            .build(key -> generateChunk(unpackX(key), unpackZ(key), seed));
+        return new SeedCache(seed, cache);
+    }
+
+    private BiomeChunk generateChunk(int chunkX, int chunkZ, long seed) {
+        BiomeChunkEvent event = new BiomeChunkEvent();
+        event.begin();
+        BiomeChunk chunk = pipeline.generateChunk(new SeededVector2Key(chunkX * chunkSize, chunkZ * chunkSize, seed));
+        if(event.shouldCommit()) {
+            event.provider = "pipeline";
+            event.chunkX = chunkX;
+            event.chunkZ = chunkZ;
+            event.seed = seed;
+            event.commit();
+        }
+        return chunk;
+    }
+
+    private void precomputeNeighbors(SeedCache seedCache, int chunkX, int chunkZ) {
+        for(int offsetX = -1; offsetX <= 1; offsetX++) {
+            for(int offsetZ = -1; offsetZ <= 1; offsetZ++) {
+                if(offsetX == 0 && offsetZ == 0) continue;
+                long neighbor = pack(chunkX + offsetX, chunkZ + offsetZ);
+                if(seedCache.cache.getIfPresent(neighbor) != null) continue;
+                PRECOMPUTE_EXECUTOR.execute(() -> seedCache.cache.get(neighbor));
+            }
+        }
+    }
+
+    private static long pack(int x, int z) {
+        return ((long) x) << 32 | z & 0xFFFFFFFFL;
+    }
 
-        int xInChunk = x - chunkWorldX;
-        int zInChunk = z - chunkWorldZ;
+    private static int unpackX(long key) {
+        return (int) (key >>> 32);
+    }
 
-        return biomeChunkCache.get(new SeededVector2Key(chunkWorldX, chunkWorldZ, seed)).get(xInChunk, zInChunk).getBiome();
+    private static int unpackZ(long key) {
+        return (int) key;
+    }
+
+    private static ExecutorService createPrecomputeExecutor() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 64), runnable -> {
+            Thread thread = new Thread(runnable, "Terra-Pipeline-Precompute-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Override
@@ -119,4 +231,7 @@ public class PipelineBiomeProvider implements BiomeProvider {
     public int resolution() {
         return resolution;
     }
+
+    private record SeedCache(long seed, LoadingCache<Long, BiomeChunk> cache) {
+    }
 }
@@ -41,6 +41,20 @@ public class BiomePipelineTemplate implements ObjectTemplate<BiomeProvider> {
     @Default
     @Description("The amplitude at which to perform blending.")
     protected @Meta double blendAmplitude = 0d;
+    @Value("cache.size")
+    @Default
+    @Description("""
+                 The maximum number of pipeline chunks to keep cached per world seed.
+                 
+                 Larger values use more memory, but reduce regeneration of pipeline chunks
+                 when many threads generate scattered chunks at once.""")
+    protected @Meta int cacheSize = 256;
+    @Value("cache.precompute-neighbors")
+    @Default
+    @Description("""
+                 Whether to compute the neighbors of a newly generated pipeline chunk in the background,
+                 so they are ready by the time world generation reaches them.""")
+    protected @Meta boolean precomputeNeighbors = false;
     @Value("pipeline.source")
     @Description("The Biome Source to use for initial population of biomes.")
     private @Meta Source source;
@@ -50,6 +64,7 @@ public class BiomePipelineTemplate implements ObjectTemplate<BiomeProvider> {
 
     @Override
     public BiomeProvider get() {
-        return new PipelineBiomeProvider(new PipelineImpl(source, stages, resolution, 128), resolution, blendSampler, blendAmplitude);
+        return new PipelineBiomeProvider(new PipelineImpl(source, stages, resolution, 128), resolution, blendSampler, blendAmplitude,
+            cacheSize, precomputeNeighbors);
     }
 }
@@ -1,13 +1,18 @@
 package com.dfsek.terra.addons.biome.query;
 
+import com.dfsek.tectonic.api.exception.LoadException;
+
 import java.util.Collection;
 
+import com.dfsek.terra.addons.biome.query.api.BiomeQueries;
+import com.dfsek.terra.addons.biome.query.api.BiomeQuery;
 import com.dfsek.terra.addons.biome.query.impl.BiomeTagFlattener;
 import com.dfsek.terra.addons.biome.query.impl.BiomeTagHolder;
 import com.dfsek.terra.addons.manifest.api.AddonInitializer;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.addon.BaseAddon;
 import com.dfsek.terra.api.event.events.config.pack.ConfigPackPostLoadEvent;
+import com.dfsek.terra.api.event.events.config.pack.ConfigPackPreLoadEvent;
 import com.dfsek.terra.api.event.functional.FunctionalEventHandler;
 import com.dfsek.terra.api.inject.annotations.Inject;
 import com.dfsek.terra.api.properties.Context;
@@ -24,6 +29,19 @@ public class BiomeQueryAPIAddon implements AddonInitializer {
 
     @Override
     public void initialize() {
+        platform.getEventManager()
+            .getHandler(FunctionalEventHandler.class)
+            .register(addon, ConfigPackPreLoadEvent.class)
+            .then(event -> event
+                .getPack()
+                .applyLoader(BiomeQuery.class, (type, o, loader, depthTracker) -> {
+                    try {
+                        return BiomeQueries.parse((String) o);
+                    } catch(IllegalArgumentException e) {
+                        throw new LoadException("Invalid biome tag query: ", e, depthTracker);
+                    }
+                }))
+            .global();
 
         platform.getEventManager()
             .getHandler(FunctionalEventHandler.class)
@@ -1,9 +1,9 @@
 package com.dfsek.terra.addons.biome.query.api;
 
-import java.util.function.Predicate;
+import java.util.Arrays;
 
-import com.dfsek.terra.addons.biome.query.impl.SingleTagQuery;
-import com.dfsek.terra.api.world.biome.Biome;
+import com.dfsek.terra.addons.biome.query.impl.BiomeTagQuery;
+import com.dfsek.terra.addons.biome.query.impl.BiomeTagQueryParser;
 
 
 public final class BiomeQueries {
@@ -11,7 +11,52 @@ public final class BiomeQueries {
 
     }
 
-    public static Predicate<Biome> has(String tag) {
-        return new SingleTagQuery(tag);
+    public static BiomeQuery has(String tag) {
+        return BiomeTagQuery.tag(tag);
+    }
+
+    /**
+     * Query for biomes with every one of the given tags.
+     */
+    public static BiomeQuery all(String... tags) {
+        return BiomeTagQuery.and(Arrays.stream(tags).map(BiomeTagQuery::tag).toList());
+    }
+
+    /**
+     * Query for biomes with at least one of the given tags.
+     */
+    public static BiomeQuery anyOf(String... tags) {
+        return BiomeTagQuery.or(Arrays.stream(tags).map(BiomeTagQuery::tag).toList());
+    }
+
+    /**
+     * @throws IllegalArgumentException if any of the queries was not created by {@link BiomeQueries}.
+     */
+    public static BiomeQuery and(BiomeQuery... queries) {
+        return BiomeTagQuery.and(Arrays.stream(queries).map(BiomeTagQuery::of).toList());
+    }
+
+    /**
+     * @throws IllegalArgumentException if any of the queries was not created by {@link BiomeQueries}.
+     */
+    public static BiomeQuery or(BiomeQuery... queries) {
+        return BiomeTagQuery.or(Arrays.stream(queries).map(BiomeTagQuery::of).toList());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the query was not created by {@link BiomeQueries}.
+     */
+    public static BiomeQuery not(BiomeQuery query) {
+        return BiomeTagQuery.not(BiomeTagQuery.of(query));
+    }
+
+    /**
+     * Parse a query expression, e.g. {@code OCEAN & !FROZEN} or {@code FOREST | TAIGA | JUNGLE}. {@code !} binds tightest, then
+     * {@code &}, then {@code |}, and parentheses group sub-expressions. A bare tag queries that tag alone.
+     *
+     * @throws IllegalArgumentException if the expression is malformed.
+     */
+    public static BiomeQuery parse(String query) {
+        return BiomeTagQueryParser.parse(query);
     }
 }
@@ -0,0 +1,17 @@
+package com.dfsek.terra.addons.biome.query.api;
+
+import java.util.function.Predicate;
+
+import com.dfsek.terra.api.world.biome.Biome;
+
+
+/**
+ * A query over biome tags, matching the biomes whose tags satisfy it.
+ * <p>
+ * Queries are created with {@link BiomeQueries}, which also combines them. Combining queries with {@link #and(Predicate)},
+ * {@link #or(Predicate)} and {@link #negate()} yields another query when the other side is a query too.
+ */
+public interface BiomeQuery extends Predicate<Biome> {
+    @Override
+    BiomeQuery negate();
+}
@@ -1,20 +1,31 @@
 package com.dfsek.terra.addons.biome.query.impl;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 public class BiomeTagFlattener {
-    private final List<String> tags;
+    private final Map<String, Integer> indices = new HashMap<>();
 
     public BiomeTagFlattener(List<String> tags) {
-        this.tags = tags;
+        for(String tag : tags) {
+            indices.putIfAbsent(tag, indices.size());
+        }
     }
 
     public int index(String tag) {
-        return tags.indexOf(tag);
+        return indices.getOrDefault(tag, -1);
     }
 
     public int size() {
-        return tags.size();
+        return indices.size();
+    }
+
+    /**
+     * @return Number of {@code long}s needed to hold one bit per tag.
+     */
+    public int words() {
+        return (size() + 63) >>> 6;
     }
 }
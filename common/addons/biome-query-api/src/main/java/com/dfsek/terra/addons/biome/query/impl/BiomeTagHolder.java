@@ -5,19 +5,24 @@ import com.dfsek.terra.api.world.biome.Biome;
 
 
 public class BiomeTagHolder implements Properties {
-    private final boolean[] tags;
+    private final long[] tags;
     private final BiomeTagFlattener flattener;
 
     public BiomeTagHolder(Biome biome, BiomeTagFlattener flattener) {
-        this.tags = new boolean[flattener.size()];
+        this.tags = new long[flattener.words()];
         this.flattener = flattener;
         for(String tag : biome.getTags()) {
-            tags[flattener.index(tag)] = true;
+            int index = flattener.index(tag);
+            tags[index >>> 6] |= 1L << index;
         }
     }
 
     boolean get(int index) {
-        return tags[index];
+        return (tags[index >>> 6] & 1L << index) != 0;
+    }
+
+    long[] bits() {
+        return tags;
     }
 
     public BiomeTagFlattener getFlattener() {
@@ -0,0 +1,241 @@
+package com.dfsek.terra.addons.biome.query.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.dfsek.terra.addons.biome.query.BiomeQueryAPIAddon;
+import com.dfsek.terra.addons.biome.query.api.BiomeQuery;
+import com.dfsek.terra.api.world.biome.Biome;
+
+
+/**
+ * A query over biome tags, compiled against the tags of a pack into bitmasks.
+ * <p>
+ * Queries are compiled to disjunctive normal form: a biome matches if, for any clause, it has all of the clause's required tags
+ * and none of its forbidden tags. Each clause is checked with a couple of mask operations per 64 tags, so testing a query does
+ * not get slower the more deeply it is nested.
+ */
+public abstract class BiomeTagQuery implements BiomeQuery {
+    /**
+     * Upper bound on the number of clauses of a compiled query, negating large disjunctions can otherwise explode.
+     */
+    private static final int MAX_CLAUSES = 4096;
+
+    private volatile Compiled compiled;
+
+    public static BiomeTagQuery tag(String tag) {
+        return new Tag(tag);
+    }
+
+    public static BiomeTagQuery and(List<BiomeTagQuery> queries) {
+        return new And(List.copyOf(queries));
+    }
+
+    public static BiomeTagQuery or(List<BiomeTagQuery> queries) {
+        return new Or(List.copyOf(queries));
+    }
+
+    public static BiomeTagQuery not(BiomeTagQuery query) {
+        return new Not(query);
+    }
+
+    /**
+     * Get the tag query behind a query.
+     *
+     * @throws IllegalArgumentException if the query is not a tag query, queries must be created by
+     *                                  {@link com.dfsek.terra.addons.biome.query.api.BiomeQueries}.
+     */
+    public static BiomeTagQuery of(BiomeQuery query) {
+        if(query instanceof BiomeTagQuery tagQuery) return tagQuery;
+        throw new IllegalArgumentException("Cannot combine biome query " + query + ", it was not created by BiomeQueries");
+    }
+
+    private static List<long[]> product(List<long[]> left, List<long[]> right) {
+        List<long[]> result = new ArrayList<>();
+        for(long[] a : left) {
+            for(long[] b : right) {
+                long[] merged = new long[a.length];
+                boolean satisfiable = true;
+                int words = a.length / 2;
+                for(int i = 0; i < a.length; i++) {
+                    merged[i] = a[i] | b[i];
+                }
+                for(int i = 0; i < words; i++) {
+                    if((merged[i] & merged[words + i]) != 0) {
+                        satisfiable = false; // Requires and forbids the same tag.
+                        break;
+                    }
+                }
+                if(satisfiable) result.add(merged);
+                if(result.size() > MAX_CLAUSES) {
+                    throw new IllegalArgumentException("Biome tag query is too complex, it has over " + MAX_CLAUSES + " clauses");
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean test(Biome biome) {
+        return matches(biome.getContext().get(BiomeQueryAPIAddon.BIOME_TAG_KEY));
+    }
+
+    /**
+     * Test the tags of a biome against this query, compiling it against the holder's tags if it has not been already.
+     */
+    public boolean matches(BiomeTagHolder holder) {
+        Compiled compiled = this.compiled;
+        if(compiled == null || compiled.flattener != holder.getFlattener()) {
+            compiled = new Compiled(holder.getFlattener(), clauses(holder.getFlattener()));
+            this.compiled = compiled;
+        }
+        return compiled.matches(holder.bits());
+    }
+
+    @Override
+    public Predicate<Biome> and(Predicate<? super Biome> other) {
+        if(other instanceof BiomeTagQuery query) {
+            return and(List.of(this, query));
+        }
+        return Predicate.super.and(other);
+    }
+
+    @Override
+    public Predicate<Biome> or(Predicate<? super Biome> other) {
+        if(other instanceof BiomeTagQuery query) {
+            return or(List.of(this, query));
+        }
+        return Predicate.super.or(other);
+    }
+
+    @Override
+    public BiomeTagQuery negate() {
+        return not(this);
+    }
+
+    /**
+     * Compiles this query to clauses. Each clause holds the required tag mask followed by the forbidden tag mask, each
+     * {@link BiomeTagFlattener#words()} long.
+     */
+    abstract List<long[]> clauses(BiomeTagFlattener flattener);
+
+
+    private static final class Tag extends BiomeTagQuery {
+        private final String tag;
+
+        private Tag(String tag) {
+            this.tag = tag;
+        }
+
+        @Override
+        List<long[]> clauses(BiomeTagFlattener flattener) {
+            int index = flattener.index(tag);
+            if(index < 0) return List.of(); // No biome has the tag.
+            long[] clause = new long[flattener.words() * 2];
+            clause[index >>> 6] |= 1L << index;
+            return List.of(clause);
+        }
+    }
+
+
+    private static final class And extends BiomeTagQuery {
+        private final List<BiomeTagQuery> queries;
+
+        private And(List<BiomeTagQuery> queries) {
+            this.queries = queries;
+        }
+
+        @Override
+        List<long[]> clauses(BiomeTagFlattener flattener) {
+            List<long[]> clauses = List.of(new long[flattener.words() * 2]);
+            for(BiomeTagQuery query : queries) {
+                clauses = product(clauses, query.clauses(flattener));
+            }
+            return clauses;
+        }
+    }
+
+
+    private static final class Or extends BiomeTagQuery {
+        private final List<BiomeTagQuery> queries;
+
+        private Or(List<BiomeTagQuery> queries) {
+            this.queries = queries;
+        }
+
+        @Override
+        List<long[]> clauses(BiomeTagFlattener flattener) {
+            List<long[]> clauses = new ArrayList<>();
+            for(BiomeTagQuery query : queries) {
+                clauses.addAll(query.clauses(flattener));
+            }
+            return clauses;
+        }
+    }
+
+
+    private static final class Not extends BiomeTagQuery {
+        private final BiomeTagQuery query;
+
+        private Not(BiomeTagQuery query) {
+            this.query = query;
+        }
+
+        @Override
+        List<long[]> clauses(BiomeTagFlattener flattener) {
+            int words = flattener.words();
+            List<long[]> clauses = List.of(new long[words * 2]);
+            // not (c1 or c2 ...) = (not c1) and (not c2) ..., where each negated clause is a disjunction of its negated tags.
+            for(long[] clause : query.clauses(flattener)) {
+                List<long[]> negated = new ArrayList<>();
+                for(int i = 0; i < clause.length; i++) {
+                    long bits = clause[i];
+                    while(bits != 0) {
+                        long bit = Long.lowestOneBit(bits);
+                        bits ^= bit;
+                        long[] literal = new long[words * 2];
+                        literal[(i + words) % (words * 2)] = bit; // Required tags become forbidden, and vice versa.
+                        negated.add(literal);
+                    }
+                }
+                clauses = product(clauses, negated);
+            }
+            return clauses;
+        }
+    }
+
+
+    private static final class Compiled {
+        private final BiomeTagFlattener flattener;
+        private final int words;
+        private final int clauseCount;
+        private final long[] masks;
+
+        private Compiled(BiomeTagFlattener flattener, List<long[]> clauses) {
+            this.flattener = flattener;
+            this.words = flattener.words();
+            this.clauseCount = clauses.size();
+            this.masks = new long[clauseCount * words * 2];
+            for(int i = 0; i < clauseCount; i++) {
+                System.arraycopy(clauses.get(i), 0, masks, i * words * 2, words * 2);
+            }
+        }
+
+        private boolean matches(long[] tags) {
+            clauses:
+            for(int clause = 0; clause < clauseCount; clause++) {
+                int required = clause * words * 2;
+                int forbidden = required + words;
+                for(int word = 0; word < words; word++) {
+                    long bits = tags[word];
+                    if((bits & masks[required + word]) != masks[required + word] || (bits & masks[forbidden + word]) != 0) {
+                        continue clauses;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
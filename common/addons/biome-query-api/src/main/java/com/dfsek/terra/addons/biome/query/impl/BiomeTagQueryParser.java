@@ -0,0 +1,89 @@
+package com.dfsek.terra.addons.biome.query.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Parses biome tag query expressions, e.g. {@code OCEAN & !FROZEN} or {@code FOREST | TAIGA | JUNGLE}.
+ * <p>
+ * {@code !} binds tightest, then {@code &}, then {@code |}. Parentheses group sub-expressions. Any other run of
+ * non-whitespace characters is a tag.
+ */
+public class BiomeTagQueryParser {
+    private final String input;
+    private int position = 0;
+
+    private BiomeTagQueryParser(String input) {
+        this.input = input;
+    }
+
+    public static BiomeTagQuery parse(String input) {
+        BiomeTagQueryParser parser = new BiomeTagQueryParser(input);
+        BiomeTagQuery query = parser.or();
+        parser.skipWhitespace();
+        if(parser.position != input.length()) {
+            throw parser.error("Unexpected '" + input.charAt(parser.position) + "'");
+        }
+        return query;
+    }
+
+    private static boolean isOperator(char c) {
+        return c == '&' || c == '|' || c == '!' || c == '(' || c == ')';
+    }
+
+    private BiomeTagQuery or() {
+        List<BiomeTagQuery> queries = new ArrayList<>();
+        queries.add(and());
+        while(consume('|')) {
+            queries.add(and());
+        }
+        return queries.size() == 1 ? queries.get(0) : BiomeTagQuery.or(queries);
+    }
+
+    private BiomeTagQuery and() {
+        List<BiomeTagQuery> queries = new ArrayList<>();
+        queries.add(unary());
+        while(consume('&')) {
+            queries.add(unary());
+        }
+        return queries.size() == 1 ? queries.get(0) : BiomeTagQuery.and(queries);
+    }
+
+    private BiomeTagQuery unary() {
+        if(consume('!')) {
+            return BiomeTagQuery.not(unary());
+        }
+        if(consume('(')) {
+            BiomeTagQuery query = or();
+            if(!consume(')')) throw error("Expected ')'");
+            return query;
+        }
+        skipWhitespace();
+        int start = position;
+        while(position < input.length() && !Character.isWhitespace(input.charAt(position)) && !isOperator(input.charAt(position))) {
+            position++;
+        }
+        if(start == position) throw error("Expected tag");
+        return BiomeTagQuery.tag(input.substring(start, position));
+    }
+
+    private boolean consume(char c) {
+        skipWhitespace();
+        if(position < input.length() && input.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while(position < input.length() && Character.isWhitespace(input.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position + " of biome tag query \"" + input + "\"");
+    }
+}
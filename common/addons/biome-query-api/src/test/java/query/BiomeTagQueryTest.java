@@ -0,0 +1,119 @@
+package query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.dfsek.terra.addons.biome.query.api.BiomeQueries;
+import com.dfsek.terra.addons.biome.query.impl.BiomeTagFlattener;
+import com.dfsek.terra.addons.biome.query.impl.BiomeTagHolder;
+import com.dfsek.terra.addons.biome.query.impl.BiomeTagQuery;
+import com.dfsek.terra.api.properties.Context;
+import com.dfsek.terra.api.world.biome.Biome;
+import com.dfsek.terra.api.world.biome.PlatformBiome;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class BiomeTagQueryTest {
+    private static final BiomeTagFlattener FLATTENER = new BiomeTagFlattener(List.of("A", "B", "C", "D"));
+
+    private static boolean matches(String query, String... tags) {
+        return ((BiomeTagQuery) BiomeQueries.parse(query)).matches(new BiomeTagHolder(biome(tags), FLATTENER));
+    }
+
+    private static Biome biome(String... tags) {
+        return new Biome() {
+            @Override
+            public PlatformBiome getPlatformBiome() {
+                return null;
+            }
+
+            @Override
+            public int getColor() {
+                return 0;
+            }
+
+            @Override
+            public Set<String> getTags() {
+                return Set.of(tags);
+            }
+
+            @Override
+            public int getIntID() {
+                return 0;
+            }
+
+            @Override
+            public Context getContext() {
+                return null;
+            }
+
+            @Override
+            public String getID() {
+                return "test";
+            }
+        };
+    }
+
+    @Test
+    public void testTag() {
+        assertTrue(matches("A", "A", "B"));
+        assertFalse(matches("A", "B"));
+        assertFalse(matches("UNKNOWN", "A", "B", "C", "D"));
+        assertTrue(matches("!UNKNOWN"));
+    }
+
+    @Test
+    public void testPrecedence() {
+        // ! binds tightest, then &, then |.
+        assertTrue(matches("A | B & !C", "A", "C"));
+        assertTrue(matches("A | B & !C", "B"));
+        assertFalse(matches("A | B & !C", "B", "C"));
+        assertTrue(matches("!A & B", "B"));
+        assertFalse(matches("!A & B", "A", "B"));
+
+        assertFalse(matches("(A | B) & !C", "A", "C"));
+        assertTrue(matches("(A | B) & !C", "A"));
+        assertTrue(matches("!(A & B)", "A"));
+        assertFalse(matches("!(A & B)", "A", "B"));
+    }
+
+    @Test
+    public void testNegation() {
+        assertTrue(matches("!(A | B)"));
+        assertFalse(matches("!(A | B)", "B"));
+        assertTrue(matches("!!A", "A"));
+        assertFalse(matches("!!A"));
+        assertFalse(matches("A & !A", "A")); // Unsatisfiable clauses are dropped.
+        assertTrue(matches("!(A & !A)"));
+        assertTrue(matches("!((A | B) & (C | D))", "A", "B"));
+        assertFalse(matches("!((A | B) & (C | D))", "B", "D"));
+    }
+
+    @Test
+    public void testMalformed() {
+        for(String query : new String[]{ "", "A &", "& A", "(A", "A)", "A B", "!", "A | | B" }) {
+            assertThrows(IllegalArgumentException.class, () -> BiomeQueries.parse(query), query);
+        }
+    }
+
+    @Test
+    public void testTooComplex() {
+        // Negating a conjunction of 13 two-tag disjunctions expands to 2^13 clauses, past the limit.
+        List<String> tags = new ArrayList<>();
+        StringBuilder query = new StringBuilder("!(");
+        for(int i = 0; i < 13; i++) {
+            if(i > 0) query.append(" | ");
+            query.append("(X").append(i).append(" & Y").append(i).append(')');
+            tags.add("X" + i);
+            tags.add("Y" + i);
+        }
+        query.append(')');
+        BiomeTagFlattener flattener = new BiomeTagFlattener(tags);
+        BiomeTagQuery compiled = (BiomeTagQuery) BiomeQueries.parse(query.toString());
+        assertThrows(IllegalArgumentException.class, () -> compiled.matches(new BiomeTagHolder(biome(), flattener)));
+    }
+}
@@ -1,4 +1,4 @@
-version = version("1.2.1")
+version = version("1.3.0")
 
 dependencies {
     compileOnlyApi(project(":common:addons:manifest-addon-loader"))
@@ -20,6 +20,7 @@ import com.dfsek.terra.addons.chunkgenerator.palette.slant.SlantHolder;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.block.state.BlockState;
 import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.profiler.jfr.ChunkGenerationEvent;
 import com.dfsek.terra.api.properties.PropertyKey;
 import com.dfsek.terra.api.util.Column;
 import com.dfsek.terra.api.world.biome.Biome;
@@ -31,6 +32,8 @@ import com.dfsek.terra.api.world.info.WorldProperties;
 
 
 public class NoiseChunkGenerator3D implements ChunkGenerator {
+    private final ConfigPack pack;
+
     private final Platform platform;
 
     private final SamplerProvider samplerCache;
@@ -52,6 +55,7 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
                                  PropertyKey<BiomeNoiseProperties> noisePropertiesKey,
                                  PropertyKey<BiomePaletteInfo> paletteInfoPropertyKey,
                                  SlantCalculationMethod slantCalculationMethod, boolean useSlantPalettes) {
+        this.pack = pack;
         this.platform = platform;
         this.air = platform.getWorldHandle().air();
         this.carverHorizontalResolution = carverHorizontalResolution;
@@ -87,6 +91,8 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
     public void generateChunkData(@NotNull ProtoChunk chunk, @NotNull WorldProperties world,
                                   @NotNull BiomeProvider biomeProvider,
                                   int chunkX, int chunkZ) {
+        ChunkGenerationEvent event = new ChunkGenerationEvent();
+        event.begin();
         platform.getProfiler().push("chunk_base_3d");
         int xOrig = (chunkX << 4);
         int zOrig = (chunkZ << 4);
@@ -141,6 +147,12 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
             }
         }
         platform.getProfiler().pop("chunk_base_3d");
+        if(event.shouldCommit()) {
+            event.pack = pack.getID();
+            event.chunkX = chunkX;
+            event.chunkZ = chunkZ;
+            event.commit();
+        }
     }
 
     @Override
@@ -179,6 +191,21 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
         return slantCalculationMethod.slant(sampler, fdX, y, fdZ);
     }
 
+    /**
+     * Get the slant of every y in {@code [minY, maxY)} of a column, equivalent to calling
+     * {@link #getSlant(int, int, int, WorldProperties, BiomeProvider)} for each y, but with a single sampler lookup.
+     *
+     * @return Slants, indexed by {@code y - minY}
+     */
+    public double[] getSlantColumn(int x, int z, int minY, int maxY, WorldProperties world, BiomeProvider biomeProvider) {
+        int fdX = Math.floorMod(x, 16);
+        int fdZ = Math.floorMod(z, 16);
+        Sampler3D sampler = samplerCache.get(x, z, world, biomeProvider);
+        double[] slants = new double[maxY - minY];
+        slantCalculationMethod.slant(sampler, fdX, fdZ, minY, maxY, slants);
+        return slants;
+    }
+
     public SamplerProvider samplerProvider() {
         return samplerCache;
     }
@@ -28,6 +28,25 @@ public enum SlantCalculationMethod {
             return DOT_PRODUCT_DIRECTION.dot(normalApproximation.normalize());
         }
 
+        @Override
+        public void slant(Sampler3D sampler, double x, double z, int minY, int maxY, double[] slants) {
+            double elevation = sampler.elevation(x, z);
+            double elevationZ1 = sampler.elevation(x, z - DERIVATIVE_DIST);
+            double elevationZ2 = sampler.elevation(x, z + DERIVATIVE_DIST);
+            double elevationX1 = sampler.elevation(x - DERIVATIVE_DIST, z);
+            double elevationX2 = sampler.elevation(x + DERIVATIVE_DIST, z);
+            for(int y = minY; y < maxY; y++) {
+                // Each axis of the normal is the difference of the samples on either side of y along that axis.
+                double normalZ = DERIVATIVE_DIST * (sampler.noise(x, y, z - DERIVATIVE_DIST) + elevationZ1)
+                                 - DERIVATIVE_DIST * (sampler.noise(x, y, z + DERIVATIVE_DIST) + elevationZ2);
+                double normalY = DERIVATIVE_DIST * (sampler.noise(x, y - DERIVATIVE_DIST, z) + elevation)
+                                 - DERIVATIVE_DIST * (sampler.noise(x, y + DERIVATIVE_DIST, z) + elevation);
+                double normalX = DERIVATIVE_DIST * (sampler.noise(x - DERIVATIVE_DIST, y, z) + elevationX1)
+                                 - DERIVATIVE_DIST * (sampler.noise(x + DERIVATIVE_DIST, y, z) + elevationX2);
+                slants[y - minY] = normalY / Math.sqrt(normalX * normalX + normalY * normalY + normalZ * normalZ);
+            }
+        }
+
         @Override
         public boolean floorToThreshold() {
             return false;
@@ -50,6 +69,28 @@ public enum SlantCalculationMethod {
                 ((xVal2 - xVal1) * (xVal2 - xVal1)) + ((zVal2 - zVal1) * (zVal2 - zVal1)) + ((yVal2 - yVal1) * (yVal2 - yVal1)));
         }
 
+        @Override
+        public void slant(Sampler3D sampler, double x, double z, int minY, int maxY, double[] slants) {
+            double elevation = sampler.elevation(x, z);
+            double elevationX1 = sampler.elevation(x + DERIVATIVE_DIST, z);
+            double elevationX2 = sampler.elevation(x - DERIVATIVE_DIST, z);
+            double elevationZ1 = sampler.elevation(x, z + DERIVATIVE_DIST);
+            double elevationZ2 = sampler.elevation(x, z - DERIVATIVE_DIST);
+            for(int y = minY; y < maxY; y++) {
+                double baseSample = sampler.noise(x, y, z) + elevation;
+
+                double xVal1 = (sampler.noise(x + DERIVATIVE_DIST, y, z) + elevationX1 - baseSample) / DERIVATIVE_DIST;
+                double xVal2 = (sampler.noise(x - DERIVATIVE_DIST, y, z) + elevationX2 - baseSample) / DERIVATIVE_DIST;
+                double zVal1 = (sampler.noise(x, y, z + DERIVATIVE_DIST) + elevationZ1 - baseSample) / DERIVATIVE_DIST;
+                double zVal2 = (sampler.noise(x, y, z - DERIVATIVE_DIST) + elevationZ2 - baseSample) / DERIVATIVE_DIST;
+                double yVal1 = (sampler.noise(x, y + DERIVATIVE_DIST, z) + elevation - baseSample) / DERIVATIVE_DIST;
+                double yVal2 = (sampler.noise(x, y - DERIVATIVE_DIST, z) + elevation - baseSample) / DERIVATIVE_DIST;
+
+                slants[y - minY] = Math.sqrt(
+                    ((xVal2 - xVal1) * (xVal2 - xVal1)) + ((zVal2 - zVal1) * (zVal2 - zVal1)) + ((yVal2 - yVal1) * (yVal2 - yVal1)));
+            }
+        }
+
         @Override
         public boolean floorToThreshold() {
             return true;
@@ -60,6 +101,14 @@ public enum SlantCalculationMethod {
 
     public abstract double slant(Sampler3D sampler, double x, double y, double z);
 
+    /**
+     * Calculate the slant of every y in {@code [minY, maxY)} of a column at once. Samples that do not depend on y, such as
+     * the elevation at each neighbor, are looked up once for the whole column rather than once per y.
+     *
+     * @param slants Array to write slants to, indexed by {@code y - minY}
+     */
+    public abstract void slant(Sampler3D sampler, double x, double z, int minY, int maxY, double[] slants);
+
     /*
      * Controls whether palettes should be applied before or after their respective thresholds.
      *
@@ -35,4 +35,16 @@ public class Sampler3D {
     public double sample(int x, int y, int z) {
         return interpolator.getNoise(x, y, z) + elevationInterpolator.getElevation(x, z);
     }
+
+    /**
+     * Sample only the interpolated noise, without elevation. {@code noise(x, y, z) + elevation(x, z)} equals
+     * {@code sample(x, y, z)}, so callers sampling many y in one column can look up the elevation once.
+     */
+    public double noise(double x, double y, double z) {
+        return interpolator.getNoise(x, y, z);
+    }
+
+    public double elevation(double x, double z) {
+        return elevationInterpolator.getElevation(FloatingPointFunctions.round(x), FloatingPointFunctions.round(z));
+    }
 }
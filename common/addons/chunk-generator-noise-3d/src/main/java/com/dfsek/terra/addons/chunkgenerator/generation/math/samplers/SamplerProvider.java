@@ -23,6 +23,7 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.properties.PropertyKey;
+import com.dfsek.terra.api.util.cache.CacheUtils;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.info.WorldProperties;
 
@@ -34,8 +35,8 @@ public class SamplerProvider {
     private final int maxBlend;
 
     public SamplerProvider(Platform platform, int elevationSmooth, PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int maxBlend) {
-        cache = Caffeine
-            .newBuilder()
+        cache = CacheUtils
+            .recordStats(Caffeine.newBuilder(), "sampler_3d")
             .maximumSize(platform.getTerraConfig().getSamplerCache())
             .build();
         this.elevationSmooth = elevationSmooth;
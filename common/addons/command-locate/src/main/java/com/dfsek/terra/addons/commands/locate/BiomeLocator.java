@@ -2,22 +2,52 @@ package com.dfsek.terra.addons.commands.locate;
 
 import com.dfsek.seismic.type.vector.Vector2Int;
 import com.dfsek.seismic.type.vector.Vector3Int;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
 import com.dfsek.terra.api.util.generic.either.Either;
 import com.dfsek.terra.api.world.biome.Biome;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.info.WorldProperties;
-import org.jetbrains.annotations.NotNull;
 
-import java.util.Optional;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 public class BiomeLocator {
+    /**
+     * Number of consecutive rings evaluated together before checking for a result.
+     */
+    private static final int RINGS_PER_BATCH = 8;
+
+    /**
+     * Maximum number of ring points evaluated by a single task.
+     */
+    private static final int POINTS_PER_TASK = 256;
+
+    /**
+     * Locate searches get their own bounded pool, so they do not compete with world generation in the common pool.
+     */
+    private static final ExecutorService EXECUTOR = createExecutor();
 
     /**
      * Locates the nearest biome matching the given predicate using a parallelized square spiral search.
+     * <p>
+     * Rings are evaluated in batches at a step no finer than the provider's resolution. Once a match is found, the search
+     * continues only as far as a closer match could still exist, then the match is refined on progressively finer grids
+     * around it. Of equally distant matches, the one with the lowest X, then Z coordinate is returned, so results do not depend on
+     * thread scheduling.
      *
      * @param provider   The BiomeProvider to search in.
      * @param properties The world properties (needed for seed and height bounds).
@@ -27,7 +57,10 @@ public class BiomeLocator {
      * @param step       The search step/increment. Higher values are faster but less accurate.
      * @param filter     The condition to match the biome.
      * @param search3D   If true, searches the entire vertical column at each step. If false, only checks originY.
+     * @param timeout    The maximum time to spend searching.
      * @return An Optional containing the location of the found biome, or empty if not found.
+     * @throws TimeoutException     If the search did not complete within {@code timeout}.
+     * @throws InterruptedException If the calling thread was interrupted while waiting for the search.
      */
     public static Optional<Either<Vector3Int, Vector2Int>> search(
         @NotNull BiomeProvider provider,
@@ -37,95 +70,180 @@ public class BiomeLocator {
         int radius,
         int step,
         @NotNull Predicate<Biome> filter,
-        boolean search3D
-    ) {
-        long seed = properties.getSeed();
-        int minHeight = properties.getMinHeight();
-        int maxHeight = properties.getMaxHeight();
+        boolean search3D,
+        @NotNull Duration timeout
+    ) throws TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + Math.min(timeout.toNanos(), Long.MAX_VALUE / 2);
+        int resolution = Math.max(1, provider.resolution());
+        int coarseStep = Math.max(step, resolution);
+
+        SearchContext context = new SearchContext(provider, properties.getSeed(), originX, originZ, filter, search3D,
+            properties.getMinHeight(), properties.getMaxHeight(), coarseStep, new AtomicBoolean());
 
         // 1. Check the exact center first
-        Optional<Either<Vector3Int, Vector2Int>> centerResult = check(provider, seed, originX, originZ, step, filter, search3D, minHeight, maxHeight);
-        if (centerResult.isPresent()) {
-            return centerResult;
+        Hit center = context.check(originX, originZ);
+        if(center != null) {
+            return Optional.of(center.location());
         }
 
-        // 2. Begin Parallel Square Spiral Search
-        // We iterate rings sequentially to guarantee finding the *nearest* result.
-        // However, we process all points within a specific ring in parallel.
-        for (int r = step; r <= radius; r += step) {
-            final int currentRadius = r;
-            final int minX = -currentRadius;
-            final int maxX = currentRadius;
-            final int minZ = -currentRadius;
-            final int maxZ = currentRadius;
-
-            Stream<int[]> northSide = IntStream.iterate(minX, n -> n < maxX, n -> n + step)
-                .mapToObj(x -> new int[]{x, minZ}); // Fixed Z (min), varying X
-
-            Stream<int[]> eastSide = IntStream.iterate(minZ, n -> n < maxZ, n -> n + step)
-                .mapToObj(z -> new int[]{maxX, z}); // Fixed X (max), varying Z
-
-            Stream<int[]> southSide = IntStream.iterate(maxX, n -> n > minX, n -> n - step)
-                .mapToObj(x -> new int[]{x, maxZ}); // Fixed Z (max), varying X
-
-            Stream<int[]> westSide = IntStream.iterate(maxZ, n -> n > minZ, n -> n - step)
-                .mapToObj(z -> new int[]{minX, z}); // Fixed X (min), varying Z
-
-            Optional<Either<Vector3Int, Vector2Int>> ringResult = Stream.of(northSide, eastSide, southSide, westSide)
-                .flatMap(Function.identity())
-                .parallel()
-                .map(coords -> check(
-                    provider,
-                    seed,
-                    originX + coords[0],
-                    originZ + coords[1],
-                    step,
-                    filter,
-                    search3D,
-                    minHeight,
-                    maxHeight
-                ))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .findFirst(); // findFirst() respects encounter order (North -> East -> South -> West)
-
-            if (ringResult.isPresent()) {
-                return ringResult;
+        // 2. Search blocks of rings in parallel, stopping once no unsearched ring can contain a closer match
+        Hit best = null;
+        int batchSize = coarseStep * RINGS_PER_BATCH;
+        for(int batchStart = coarseStep; batchStart <= radius; batchStart += batchSize) {
+            if(best != null && (long) batchStart * batchStart > best.distanceSquared()) {
+                break;
+            }
+            int batchEnd = Math.min(radius, batchStart + batchSize - coarseStep);
+
+            List<Future<Hit>> tasks = new ArrayList<>();
+            for(int ring = batchStart; ring <= batchEnd; ring += coarseStep) {
+                int points = 8 * (ring / coarseStep);
+                for(int from = 0; from < points; from += POINTS_PER_TASK) {
+                    int ringRadius = ring;
+                    int start = from;
+                    int end = Math.min(points, from + POINTS_PER_TASK);
+                    tasks.add(EXECUTOR.submit(() -> context.checkRingSegment(ringRadius, start, end)));
+                }
             }
+
+            for(Hit hit : await(tasks, context, deadline)) {
+                best = closest(best, hit);
+            }
+        }
+
+        if(best == null) {
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        // 3. Refine the match on finer grids around it
+        for(int refineStep = coarseStep / 2; refineStep >= resolution; refineStep /= 2) {
+            if(System.nanoTime() - deadline > 0) {
+                throw new TimeoutException("Biome search timed out while refining result.");
+            }
+            Hit around = best;
+            for(int offsetX = -2; offsetX <= 2; offsetX++) {
+                for(int offsetZ = -2; offsetZ <= 2; offsetZ++) {
+                    best = closest(best, context.check(around.x() + offsetX * refineStep, around.z() + offsetZ * refineStep));
+                }
+            }
+        }
+
+        return Optional.of(best.location());
     }
 
-    /**
-     * Helper to check a specific coordinate column or point.
-     * This logic is executed inside the worker threads.
-     */
-    private static Optional<Either<Vector3Int, Vector2Int>> check(
-        BiomeProvider provider,
-        long seed,
-        int x,
-        int z,
-        int step,
-        Predicate<Biome> filter,
-        boolean search3D,
-        int minHeight,
-        int maxHeight
-    ) {
-        if (search3D) {
-            // Iterate from bottom to top of the world using the step
-            for (int y = minHeight; y < maxHeight; y += step) {
-                if (filter.test(provider.getBiome(x, y, z, seed))) {
-                    return Optional.of(Either.left(Vector3Int.of(x, y, z)));
+    private static List<Hit> await(List<Future<Hit>> tasks, SearchContext context, long deadline)
+    throws TimeoutException, InterruptedException {
+        List<Hit> hits = new ArrayList<>();
+        try {
+            for(Future<Hit> task : tasks) {
+                Hit hit = task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if(hit != null) hits.add(hit);
+            }
+        } catch(TimeoutException | InterruptedException e) {
+            context.cancelled().set(true);
+            tasks.forEach(task -> task.cancel(true));
+            throw e;
+        } catch(ExecutionException e) {
+            context.cancelled().set(true);
+            tasks.forEach(task -> task.cancel(true));
+            throw new IllegalStateException("Biome search failed", e.getCause());
+        }
+        return hits;
+    }
+
+    private static Hit closest(@Nullable Hit current, @Nullable Hit candidate) {
+        if(candidate == null) return current;
+        if(current == null) return candidate;
+        if(candidate.distanceSquared() != current.distanceSquared()) {
+            return candidate.distanceSquared() < current.distanceSquared() ? candidate : current;
+        }
+        if(candidate.x() != current.x()) {
+            return candidate.x() < current.x() ? candidate : current;
+        }
+        return candidate.z() < current.z() ? candidate : current;
+    }
+
+    private static ExecutorService createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+            Thread thread = new Thread(runnable, "Terra-Biome-Locator-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private record Hit(int x, int z, long distanceSquared, Either<Vector3Int, Vector2Int> location) {
+    }
+
+
+    private record SearchContext(BiomeProvider provider,
+                                 long seed,
+                                 int originX,
+                                 int originZ,
+                                 Predicate<Biome> filter,
+                                 boolean search3D,
+                                 int minHeight,
+                                 int maxHeight,
+                                 int step,
+                                 AtomicBoolean cancelled) {
+        /**
+         * Checks points {@code [start, end)} of the ring at {@code radius}, walking North -> East -> South -> West.
+         *
+         * @return The closest match in the segment, or null if there is none.
+         */
+        private Hit checkRingSegment(int radius, int start, int end) {
+            int sideLength = 2 * (radius / step);
+            Hit best = null;
+            for(int i = start; i < end; i++) {
+                if(cancelled.get()) return null;
+                int offset = (i % sideLength) * step;
+                int x;
+                int z;
+                switch(i / sideLength) {
+                    case 0 -> { // Fixed Z (min), varying X
+                        x = -radius + offset;
+                        z = -radius;
+                    }
+                    case 1 -> { // Fixed X (max), varying Z
+                        x = radius;
+                        z = -radius + offset;
+                    }
+                    case 2 -> { // Fixed Z (max), varying X
+                        x = radius - offset;
+                        z = radius;
+                    }
+                    default -> { // Fixed X (min), varying Z
+                        x = -radius;
+                        z = radius - offset;
+                    }
                 }
+                best = closest(best, check(originX + x, originZ + z));
+            }
+            return best;
+        }
+
+        /**
+         * Checks a specific coordinate column or point.
+         */
+        private Hit check(int x, int z) {
+            long distanceX = x - originX;
+            long distanceZ = z - originZ;
+            long distanceSquared = distanceX * distanceX + distanceZ * distanceZ;
+            if(search3D) {
+                // Iterate from bottom to top of the world using the step
+                for(int y = minHeight; y < maxHeight; y += step) {
+                    if(filter.test(provider.getBiome(x, y, z, seed))) {
+                        return new Hit(x, z, distanceSquared, Either.left(Vector3Int.of(x, y, z)));
+                    }
+                }
+                return null;
+            } else {
+                // 2D Mode: Check only the base biome
+                return provider.getBaseBiome(x, z, seed)
+                    .filter(filter)
+                    .map(b -> new Hit(x, z, distanceSquared, Either.right(Vector2Int.of(x, z))))
+                    .orElse(null);
             }
-            return Optional.empty();
-        } else {
-            // 2D Mode: Check only the base biome
-            // We use a flatMap approach here to be safe with Optionals inside the stream
-            return provider.getBaseBiome(x, z, seed)
-                .filter(filter)
-                .map(b -> Either.right(Vector2Int.of(x, z)));
         }
     }
-}
\ No newline at end of file
+}
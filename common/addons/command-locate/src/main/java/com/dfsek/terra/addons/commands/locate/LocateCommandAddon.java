@@ -9,7 +9,9 @@ import org.incendo.cloud.context.CommandContext;
 import org.incendo.cloud.description.Description;
 import org.incendo.cloud.parser.standard.IntegerParser;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 import com.dfsek.terra.addons.manifest.api.AddonInitializer;
 import com.dfsek.terra.api.Platform;
@@ -56,6 +58,8 @@ public class LocateCommandAddon implements AddonInitializer {
                         .optional("radius", IntegerParser.integerParser(100), DefaultValue.constant(5000))
                         // Argument 3: Step/Resolution (Optional, default 16)
                         .optional("step", IntegerParser.integerParser(1), DefaultValue.constant(16))
+                        // Argument 4: Timeout in seconds (Optional, default 30)
+                        .optional("timeout", IntegerParser.integerParser(1), DefaultValue.constant(30))
                         // Flag: Toggle 3D search (e.g., --3d or -3)
                         .flag(manager.flagBuilder("3d").withAliases("3").build())
                         // Flag: Auto resolution mode (e.g., --auto or -a)
@@ -71,6 +75,8 @@ public class LocateCommandAddon implements AddonInitializer {
                             int radius = context.get("radius");
                             boolean search3D = context.flags().hasFlag("3d");
                             boolean autoMode = context.flags().hasFlag("auto");
+                            int timeout = context.get("timeout");
+                            long deadline = System.nanoTime() + Duration.ofSeconds(timeout).toNanos();
 
                             // 2. Determine Initial Step
                             // If Auto: Start at radius / 2 (very coarse check).
@@ -87,16 +93,27 @@ public class LocateCommandAddon implements AddonInitializer {
 
                             // 3. Execute Search Loop
                             while(true) {
-                                result = BiomeLocator.search(
-                                    world.getBiomeProvider(),
-                                    world,
-                                    sender.position().getFloorX(),
-                                    sender.position().getFloorZ(),
-                                    radius,
-                                    currentStep,
-                                    found -> found.equals(targetBiome), // Match specific biome instance
-                                    search3D
-                                );
+                                try {
+                                    result = BiomeLocator.search(
+                                        world.getBiomeProvider(),
+                                        world,
+                                        sender.position().getFloorX(),
+                                        sender.position().getFloorZ(),
+                                        radius,
+                                        currentStep,
+                                        found -> found.equals(targetBiome), // Match specific biome instance
+                                        search3D,
+                                        Duration.ofNanos(deadline - System.nanoTime())
+                                    );
+                                } catch(TimeoutException e) {
+                                    context.sender().sendMessage(
+                                        "Search for " + targetBiome.getID() + " timed out after " + timeout + " seconds.");
+                                    return;
+                                } catch(InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                    context.sender().sendMessage("Search for " + targetBiome.getID() + " was cancelled.");
+                                    return;
+                                }
 
                                 // Exit Conditions:
                                 // 1. Found a result
@@ -8,20 +8,34 @@
 package com.dfsek.terra.addons.feature.locator.config;
 
 import com.dfsek.seismic.type.sampler.Sampler;
+import com.dfsek.tectonic.api.config.template.ValidatedConfigTemplate;
+import com.dfsek.tectonic.api.config.template.annotations.Default;
 import com.dfsek.tectonic.api.config.template.annotations.Value;
 import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
+import com.dfsek.tectonic.api.exception.ValidationException;
 
 import com.dfsek.terra.addons.feature.locator.locators.Sampler3DLocator;
 import com.dfsek.terra.api.config.meta.Meta;
 import com.dfsek.terra.api.structure.feature.Locator;
 
 
-public class Sampler3DLocatorTemplate implements ObjectTemplate<Locator> {
+@SuppressWarnings("FieldMayBeFinal")
+public class Sampler3DLocatorTemplate implements ValidatedConfigTemplate, ObjectTemplate<Locator> {
     @Value("sampler")
     private @Meta Sampler sampler;
 
+    @Value("vertical-resolution")
+    @Default
+    private @Meta int verticalResolution = 1;
+
+    @Override
+    public boolean validate() throws ValidationException {
+        if(verticalResolution < 1) throw new ValidationException("Vertical resolution must be at least 1: " + verticalResolution);
+        return true;
+    }
+
     @Override
     public Locator get() {
-        return new Sampler3DLocator(sampler);
+        return new Sampler3DLocator(sampler, verticalResolution);
     }
 }
@@ -11,14 +11,25 @@ import com.dfsek.seismic.type.sampler.Sampler;
 
 import com.dfsek.terra.api.structure.feature.BinaryColumn;
 import com.dfsek.terra.api.structure.feature.Locator;
+import com.dfsek.terra.api.util.generic.Lazy;
 import com.dfsek.terra.api.world.chunk.generation.util.Column;
 
 
 public class Sampler3DLocator implements Locator {
     private final Sampler sampler;
+    private final int verticalResolution;
 
     public Sampler3DLocator(Sampler sampler) {
+        this(sampler, 1);
+    }
+
+    /**
+     * @param verticalResolution Distance between sampled y values. Values in between are linearly interpolated, the same way
+     *                           the noise chunk generator interpolates terrain. {@code 1} samples every y.
+     */
+    public Sampler3DLocator(Sampler sampler, int verticalResolution) {
         this.sampler = sampler;
+        this.verticalResolution = verticalResolution;
     }
 
     @Override
@@ -26,6 +37,37 @@ public class Sampler3DLocator implements Locator {
         long seed = column.getWorld().getSeed();
         int x = column.getX();
         int z = column.getZ();
-        return column.newBinaryColumn(y -> sampler.getSample(seed, x, y, z) > 0);
+        if(verticalResolution == 1) {
+            // Sample lazily, so that y values excluded by other locators are never sampled.
+            return column.newBinaryColumn(y -> sampler.getSample(seed, x, y, z) > 0);
+        }
+        int minY = column.getMinY();
+        int maxY = column.getMaxY();
+        Lazy<boolean[]> results = Lazy.lazy(() -> sampleColumn(seed, x, z, minY, maxY));
+        return column.newBinaryColumn(y -> results.value()[y - minY]);
+    }
+
+    private boolean[] sampleColumn(long seed, int x, int z, int minY, int maxY) {
+        boolean[] results = new boolean[maxY - minY];
+        int lastY = maxY - 1;
+        double lower = sampler.getSample(seed, x, minY, z);
+        results[0] = lower > 0;
+        for(int y0 = minY; y0 < lastY; y0 += verticalResolution) {
+            int y1 = Math.min(y0 + verticalResolution, lastY);
+            double upper = sampler.getSample(seed, x, y1, z);
+            if((lower > 0) == (upper > 0)) {
+                // No sign change between samples, so every interpolated value shares their sign.
+                for(int y = y0 + 1; y <= y1; y++) {
+                    results[y - minY] = upper > 0;
+                }
+            } else {
+                double step = (upper - lower) / (y1 - y0);
+                for(int y = y0 + 1; y <= y1; y++) {
+                    results[y - minY] = lower + step * (y - y0) > 0;
+                }
+            }
+            lower = upper;
+        }
+        return results;
     }
 }
@@ -7,6 +7,7 @@
 
 package com.dfsek.terra.addons.feature.locator.locators;
 
+import com.dfsek.terra.api.block.state.BlockState;
 import com.dfsek.terra.api.structure.feature.BinaryColumn;
 import com.dfsek.terra.api.structure.feature.Locator;
 import com.dfsek.terra.api.util.range.Range;
@@ -27,8 +28,9 @@ public class SurfaceLocator implements Locator {
         int max = Math.min(search.getMax(), column.getMaxY());
         int min = Math.max(search.getMin(), column.getMinY());
         if(min >= max) return builder.build();
+        BlockState[] blocks = column.getBlocks(min - 1, max); // Includes the block below the lowest y searched.
         for(int y = min; y < max; y++) {
-            if(column.getBlock(y).isAir() && !column.getBlock(y - 1).isAir()) {
+            if(blocks[y - min + 1].isAir() && !blocks[y - min].isAir()) {
                 builder.set(y);
             }
         }
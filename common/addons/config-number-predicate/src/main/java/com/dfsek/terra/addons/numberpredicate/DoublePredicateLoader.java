@@ -13,9 +13,14 @@ import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.AnnotatedType;
 import java.util.function.DoublePredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
 public class DoublePredicateLoader implements TypeLoader<DoublePredicate> {
+    private static final String NUMBER = "[+-]?(?:\\d+\\.?\\d*|\\.\\d+)(?:[eE][+-]?\\d+)?";
+    private static final Pattern COMPARISON = Pattern.compile(
+        "\\s*(value|" + NUMBER + ")\\s*(<=|>=|<|>)\\s*(value|" + NUMBER + ")\\s*");
 
     private final ParseOptions parseOptions;
 
@@ -27,6 +32,9 @@ public class DoublePredicateLoader implements TypeLoader<DoublePredicate> {
     public DoublePredicate load(@NotNull AnnotatedType annotatedType, @NotNull Object o, @NotNull ConfigLoader configLoader,
                                 DepthTracker depthTracker) throws LoadException {
         if(o instanceof String expressionString) {
+            DoubleRangePredicate range = parseRange(expressionString);
+            if(range != null) return range;
+
             Scope scope = new Scope();
             scope.addInvocationVariable("value");
             try {
@@ -39,4 +47,40 @@ public class DoublePredicateLoader implements TypeLoader<DoublePredicate> {
             throw new LoadException("Double predicates must be defined as a string. E.g. 'value > 3'", depthTracker);
         }
     }
+
+    /**
+     * Recognizes conjunctions of comparisons between {@code value} and numeric literals, which make up nearly all predicates in
+     * practice, so they can be evaluated without the expression interpreter.
+     *
+     * @return The equivalent range, or null if the expression has any other form.
+     */
+    private static DoubleRangePredicate parseRange(String expression) {
+        DoubleRangePredicate range = DoubleRangePredicate.ALL;
+        for(String term : expression.split("&&", -1)) {
+            Matcher matcher = COMPARISON.matcher(term);
+            if(!matcher.matches()) return null;
+            String left = matcher.group(1);
+            String operator = matcher.group(2);
+            String right = matcher.group(3);
+            boolean valueLeft = left.equals("value");
+            if(valueLeft == right.equals("value")) return null; // Either no or two variables.
+
+            double bound = Double.parseDouble(valueLeft ? right : left);
+            if(!valueLeft) { // Flip so that value is on the left.
+                operator = switch(operator) {
+                    case "<" -> ">";
+                    case ">" -> "<";
+                    case "<=" -> ">=";
+                    default -> "<=";
+                };
+            }
+            range = range.intersect(switch(operator) {
+                case "<" -> new DoubleRangePredicate(Double.NEGATIVE_INFINITY, true, bound, false);
+                case "<=" -> new DoubleRangePredicate(Double.NEGATIVE_INFINITY, true, bound, true);
+                case ">" -> new DoubleRangePredicate(bound, false, Double.POSITIVE_INFINITY, true);
+                default -> new DoubleRangePredicate(bound, true, Double.POSITIVE_INFINITY, true);
+            });
+        }
+        return range;
+    }
 }
@@ -0,0 +1,40 @@
+package com.dfsek.terra.addons.numberpredicate;
+
+import java.util.function.DoublePredicate;
+
+
+/**
+ * A {@link DoublePredicate} matching values within an interval, produced by {@link DoublePredicateLoader} for simple comparisons
+ * such as {@code value > 0.4} or {@code value > 1 && value < 2}.
+ * <p>
+ * Consumers may check for this type to use the bounds directly, e.g. to skip evaluating values that cannot match.
+ *
+ * @param min          Lower bound, may be {@link Double#NEGATIVE_INFINITY}.
+ * @param minInclusive Whether values equal to {@code min} match.
+ * @param max          Upper bound, may be {@link Double#POSITIVE_INFINITY}.
+ * @param maxInclusive Whether values equal to {@code max} match.
+ */
+public record DoubleRangePredicate(double min, boolean minInclusive, double max, boolean maxInclusive) implements DoublePredicate {
+    public static final DoubleRangePredicate ALL = new DoubleRangePredicate(Double.NEGATIVE_INFINITY, true,
+        Double.POSITIVE_INFINITY, true);
+
+    @Override
+    public boolean test(double value) {
+        return (minInclusive ? value >= min : value > min) && (maxInclusive ? value <= max : value < max);
+    }
+
+    /**
+     * @return Whether no value can match this range.
+     */
+    public boolean isEmpty() {
+        return min > max || (min == max && !(minInclusive && maxInclusive));
+    }
+
+    public DoubleRangePredicate intersect(DoubleRangePredicate other) {
+        double min = Math.max(this.min, other.min);
+        double max = Math.min(this.max, other.max);
+        boolean minInclusive = (min != this.min || this.minInclusive) && (min != other.min || other.minInclusive);
+        boolean maxInclusive = (max != this.max || this.maxInclusive) && (max != other.max || other.maxInclusive);
+        return new DoubleRangePredicate(min, minInclusive, max, maxInclusive);
+    }
+}
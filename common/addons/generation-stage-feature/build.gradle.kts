@@ -1,4 +1,4 @@
-version = version("1.1.0")
+version = version("1.2.0")
 
 dependencies {
     compileOnlyApi(project(":common:addons:manifest-addon-loader"))
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.generation.feature;
+
+import com.dfsek.seismic.type.sampler.Sampler;
+
+import com.dfsek.terra.addons.generation.feature.config.BiomeFeatures;
+import com.dfsek.terra.api.Platform;
+import com.dfsek.terra.api.properties.PropertyKey;
+import com.dfsek.terra.api.world.chunk.generation.stage.Chunkified;
+
+
+/**
+ * A {@link FeatureGenerationStage} whose features only read and write blocks in the chunk being generated.
+ * <p>
+ * Platforms may populate chunkified stages along with the chunk's terrain, where no neighbouring chunks are available, before
+ * any other stage runs.
+ */
+public class ChunkifiedFeatureGenerationStage extends FeatureGenerationStage implements Chunkified {
+    public ChunkifiedFeatureGenerationStage(Platform platform, String id, int resolution, PropertyKey<BiomeFeatures> biomeFeaturesKey,
+                                            Sampler blendSampler, double blendAmplitude) {
+        super(platform, id, resolution, biomeFeaturesKey, blendSampler, blendAmplitude);
+    }
+}
@@ -17,6 +17,7 @@ import java.util.random.RandomGeneratorFactory;
 
 import com.dfsek.terra.addons.generation.feature.config.BiomeFeatures;
 import com.dfsek.terra.api.Platform;
+import com.dfsek.terra.api.profiler.jfr.GenerationStageEvent;
 import com.dfsek.terra.api.properties.PropertyKey;
 import com.dfsek.terra.api.registry.key.StringIdentifiable;
 import com.dfsek.terra.api.world.WritableWorld;
@@ -53,6 +54,8 @@ public class FeatureGenerationStage implements GenerationStage, StringIdentifiab
     @Override
     @SuppressWarnings("try")
     public void populate(ProtoWorld world) {
+        GenerationStageEvent event = new GenerationStageEvent();
+        event.begin();
         platform.getProfiler().push(profile);
         int cx = world.centerChunkX() << 4;
         int cz = world.centerChunkZ() << 4;
@@ -99,6 +102,13 @@ public class FeatureGenerationStage implements GenerationStage, StringIdentifiab
             }
         }
         platform.getProfiler().pop(profile);
+        if(event.shouldCommit()) {
+            event.pack = world.getPack().getID();
+            event.stage = id;
+            event.chunkX = world.centerChunkX();
+            event.chunkZ = world.centerChunkZ();
+            event.commit();
+        }
     }
 
     @Override
@@ -7,6 +7,7 @@ import com.dfsek.tectonic.api.config.template.annotations.Value;
 import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
 import com.dfsek.tectonic.api.exception.ValidationException;
 
+import com.dfsek.terra.addons.generation.feature.ChunkifiedFeatureGenerationStage;
 import com.dfsek.terra.addons.generation.feature.FeatureGenerationStage;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.properties.PropertyKey;
@@ -41,6 +42,18 @@ public class FeatureStageTemplate implements ObjectTemplate<GenerationStage>, Va
     @Default
     private double blendAmplitude = 0d;
 
+    /**
+     * Whether every feature in this stage stays inside the chunk it generates in. Such stages can be generated along with the
+     * chunk's terrain rather than in a later pass that also has access to neighbouring chunks.
+     * <p>
+     * Platforms that generate chunkified stages with the terrain run them before every stage that is not chunkified, regardless
+     * of their position in {@code stages}. Blocks placed outside the chunk are discarded, and blocks outside the chunk read as
+     * air.
+     */
+    @Value("chunkified")
+    @Default
+    private boolean chunkified = false;
+
     public FeatureStageTemplate(Platform platform, PropertyKey<BiomeFeatures> biomeFeaturesKey) {
         this.platform = platform;
         this.biomeFeaturesKey = biomeFeaturesKey;
@@ -49,6 +62,9 @@ public class FeatureStageTemplate implements ObjectTemplate<GenerationStage>, Va
 
     @Override
     public FeatureGenerationStage get() {
+        if(chunkified) {
+            return new ChunkifiedFeatureGenerationStage(platform, id, resolution, biomeFeaturesKey, blendSampler, blendAmplitude);
+        }
         return new FeatureGenerationStage(platform, id, resolution, biomeFeaturesKey, blendSampler, blendAmplitude);
     }
 
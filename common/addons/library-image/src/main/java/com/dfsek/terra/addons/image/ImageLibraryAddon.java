@@ -6,6 +6,7 @@ import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
 import java.util.function.Supplier;
 
 import com.dfsek.terra.addons.image.colorsampler.ColorSampler;
+import com.dfsek.terra.addons.image.config.CacheDirectory;
 import com.dfsek.terra.addons.image.config.ColorLoader;
 import com.dfsek.terra.addons.image.config.ColorLoader.ColorString;
 import com.dfsek.terra.addons.image.config.ImageLibraryPackConfigTemplate;
@@ -56,6 +57,7 @@ public class ImageLibraryAddon implements AddonInitializer {
             .then(event -> {
                 ImageLibraryPackConfigTemplate config = event.loadTemplate(new ImageLibraryPackConfigTemplate());
                 event.getPack().getContext().put(config);
+                event.getPack().getContext().put(new CacheDirectory(platform.getDataFolder().toPath().resolve("cache").resolve("images")));
             })
             .then(event -> {
                 ConfigPack pack = event.getPack();
@@ -73,7 +75,8 @@ public class ImageLibraryAddon implements AddonInitializer {
 
                 CheckedRegistry<Supplier<ObjectTemplate<Sampler>>> noiseRegistry = event.getPack().getOrCreateRegistry(
                     NOISE_SAMPLER_TOKEN);
-                noiseRegistry.register(addon.key("DISTANCE_TRANSFORM"), DistanceTransformSamplerTemplate::new);
+                ConfigPack pack = event.getPack();
+                noiseRegistry.register(addon.key("DISTANCE_TRANSFORM"), () -> new DistanceTransformSamplerTemplate(pack));
                 noiseRegistry.register(addon.key("CHANNEL"), ChannelSamplerTemplate::new);
             })
             .then(event -> {
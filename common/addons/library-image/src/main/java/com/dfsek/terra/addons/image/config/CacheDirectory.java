@@ -0,0 +1,12 @@
+package com.dfsek.terra.addons.image.config;
+
+import java.nio.file.Path;
+
+import com.dfsek.terra.api.properties.Properties;
+
+
+/**
+ * Directory in which the image library stores files derived from pack images, such as decoded raw images.
+ */
+public record CacheDirectory(Path path) implements Properties {
+}
@@ -25,6 +25,19 @@ public class ImageLibraryPackConfigTemplate implements ConfigTemplate, Propertie
     @Default
     private int cacheTimeout = 0;
 
+    @Value("images.cache.memory-map")
+    @Description("If set to true, decoded images will be written to raw files in Terra's cache directory and memory-mapped, rather " +
+                 "than being held on the heap. Raw files are keyed by the contents of the source image, so subsequent loads of an " +
+                 "unchanged image skip decoding entirely. Recommended for very large images.")
+    @Default
+    private boolean memoryMap = false;
+
+    @Value("images.cache.distance-transforms")
+    @Description("If set to true, computed distance transforms will be saved to files in Terra's cache directory, keyed by the " +
+                 "source image contents and transform parameters, so reloading an unchanged pack skips recomputing them.")
+    @Default
+    private boolean cacheDistanceTransforms = false;
+
     public boolean loadOnUse() {
         return loadOnUse;
     }
@@ -36,4 +49,12 @@ public class ImageLibraryPackConfigTemplate implements ConfigTemplate, Propertie
     public int getCacheTimeout() {
         return cacheTimeout;
     }
+
+    public boolean memoryMap() {
+        return memoryMap;
+    }
+
+    public boolean cacheDistanceTransforms() {
+        return cacheDistanceTransforms;
+    }
 }
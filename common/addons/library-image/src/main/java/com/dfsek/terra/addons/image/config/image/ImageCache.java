@@ -5,16 +5,20 @@ import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.Scheduler;
 
 import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.TimeUnit;
 
+import com.dfsek.terra.addons.image.config.CacheDirectory;
 import com.dfsek.terra.addons.image.config.ImageLibraryPackConfigTemplate;
-import com.dfsek.terra.addons.image.image.BufferedImageWrapper;
+import com.dfsek.terra.addons.image.image.ArrayImage;
 import com.dfsek.terra.addons.image.image.Image;
+import com.dfsek.terra.addons.image.image.MappedImage;
 import com.dfsek.terra.addons.image.image.SuppliedImage;
+import com.dfsek.terra.addons.image.util.HashUtil;
 import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.api.properties.Properties;
 import com.dfsek.terra.api.util.generic.Lazy;
@@ -32,7 +36,8 @@ record ImageCache(LoadingCache<String, Image> cache) implements Properties {
         if(!pack.getContext().has(ImageCache.class)) {
             var cacheBuilder = Caffeine.newBuilder().executor(CACHE_EXECUTOR).scheduler(Scheduler.systemScheduler());
             if(config.unloadOnTimeout()) cacheBuilder.expireAfterAccess(config.getCacheTimeout(), TimeUnit.SECONDS);
-            images = new ImageCache(cacheBuilder.build(s -> loadImage(s, pack.getRootPath())));
+            Path cacheDirectory = config.memoryMap() ? pack.getContext().get(CacheDirectory.class).path() : null;
+            images = new ImageCache(cacheBuilder.build(s -> loadImage(s, pack.getRootPath(), cacheDirectory)));
             pack.getContext().put(images);
         } else images = pack.getContext().get(ImageCache.class);
 
@@ -49,8 +54,28 @@ record ImageCache(LoadingCache<String, Image> cache) implements Properties {
         return images.cache.get(path);
     }
 
-    private static Image loadImage(String path, Path directory) throws IOException {
-        InputStream is = Files.newInputStream(directory.resolve(path));
-        return new BufferedImageWrapper(ImageIO.read(is));
+    /*
+     * Images are decoded once into raw ARGB pixels, either on the heap or, if a cache directory is given, into a memory-mapped
+     * file keyed by the hash of the source image.
+     */
+    private static Image loadImage(String path, Path directory, Path cacheDirectory) throws IOException {
+        byte[] data = Files.readAllBytes(directory.resolve(path));
+        String hash = HashUtil.sha256(data);
+        if(cacheDirectory == null) {
+            return ArrayImage.of(decode(path, data), hash);
+        }
+
+        Path cacheFile = cacheDirectory.resolve(hash + ".argb");
+        if(Files.exists(cacheFile)) {
+            return MappedImage.open(cacheFile, hash);
+        }
+        Files.createDirectories(cacheDirectory);
+        return MappedImage.write(decode(path, data), cacheFile, hash);
+    }
+
+    private static BufferedImage decode(String path, byte[] data) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+        if(image == null) throw new IOException("Unsupported image format: " + path);
+        return image;
     }
 }
@@ -5,15 +5,20 @@ import com.dfsek.tectonic.api.config.template.annotations.Default;
 import com.dfsek.tectonic.api.config.template.annotations.Value;
 import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
 
+import com.dfsek.terra.addons.image.config.CacheDirectory;
+import com.dfsek.terra.addons.image.config.ImageLibraryPackConfigTemplate;
 import com.dfsek.terra.addons.image.image.Image;
 import com.dfsek.terra.addons.image.operator.DistanceTransform;
 import com.dfsek.terra.addons.image.operator.DistanceTransform.CostFunction;
 import com.dfsek.terra.addons.image.operator.DistanceTransform.Normalization;
 import com.dfsek.terra.addons.image.util.ColorUtil.Channel;
+import com.dfsek.terra.api.config.ConfigPack;
 
 
 public class DistanceTransformSamplerTemplate implements ObjectTemplate<Sampler> {
 
+    private final ConfigPack pack;
+
     @Value("image")
     private Image image;
 
@@ -67,9 +72,19 @@ public class DistanceTransformSamplerTemplate implements ObjectTemplate<Sampler>
     @Default
     private Normalization normalization = Normalization.None;
 
+    public DistanceTransformSamplerTemplate(ConfigPack pack) {
+        this.pack = pack;
+    }
+
     @Override
     public Sampler get() {
-        return new DistanceTransform.Noise(new DistanceTransform(image, channel, threshold, clampToEdge, costFunction, invertThreshold),
-            normalization);
+        DistanceTransform transform;
+        if(pack.getContext().get(ImageLibraryPackConfigTemplate.class).cacheDistanceTransforms()) {
+            transform = DistanceTransform.cached(pack.getContext().get(CacheDirectory.class).path().resolve("distance-transforms"), image,
+                channel, threshold, clampToEdge, costFunction, invertThreshold);
+        } else {
+            transform = new DistanceTransform(image, channel, threshold, clampToEdge, costFunction, invertThreshold);
+        }
+        return new DistanceTransform.Noise(transform, normalization);
     }
 }
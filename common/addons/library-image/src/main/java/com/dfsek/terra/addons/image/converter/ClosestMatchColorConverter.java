@@ -1,37 +1,114 @@
 package com.dfsek.terra.addons.image.converter;
 
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import com.dfsek.terra.addons.image.util.ColorUtil;
 
 
 public class ClosestMatchColorConverter<T> implements ColorConverter<T> {
 
+    /**
+     * Number of entries in the nearest match cache, must be a power of two.
+     */
+    private static final int NEAREST_CACHE_SIZE = 4096;
+
     private final Map<Integer, T> map;
 
-    private final Integer[] colors;
+    /**
+     * Mapped colors and their values, in the map's iteration order so ties resolve the same way as a scan over the map.
+     */
+    private final int[] colors;
+
+    private final T[] values;
+
+    /**
+     * Open addressing table of mapped colors, storing {@code index + 1} into {@link #values}, or 0 for empty slots.
+     */
+    private final int[] exactColors;
 
+    private final int[] exactIndices;
+
+    /**
+     * Direct-mapped cache of nearest match results for unmapped colors, each entry packs {@code color << 32 | index + 1}.
+     */
+    private final AtomicLongArray nearestCache = new AtomicLongArray(NEAREST_CACHE_SIZE);
+
+    @SuppressWarnings("unchecked")
     public ClosestMatchColorConverter(Map<Integer, T> map) {
         this.map = map;
-        this.colors = map.keySet().toArray(new Integer[0]);
+        this.colors = new int[map.size()];
+        this.values = (T[]) new Object[map.size()];
+        int i = 0;
+        for(Entry<Integer, T> entry : map.entrySet()) {
+            colors[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+
+        int tableSize = Integer.highestOneBit(Math.max(1, colors.length) * 2 - 1) << 1;
+        this.exactColors = new int[tableSize];
+        this.exactIndices = new int[tableSize];
+        for(int index = 0; index < colors.length; index++) {
+            int slot = hash(colors[index]) & (tableSize - 1);
+            while(exactIndices[slot] != 0) {
+                slot = (slot + 1) & (tableSize - 1);
+            }
+            exactColors[slot] = colors[index];
+            exactIndices[slot] = index + 1;
+        }
+    }
+
+    private static int hash(int color) {
+        int hash = color * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
     }
 
     @Override
     public T apply(int color) {
-        int closest = 0;
+        int exact = exactIndex(color);
+        if(exact >= 0) {
+            return values[exact];
+        }
+
+        int slot = hash(color) & (NEAREST_CACHE_SIZE - 1);
+        long cached = nearestCache.getOpaque(slot);
+        if(cached != 0 && (int) (cached >>> 32) == color) {
+            return values[(int) cached - 1];
+        }
+
+        int nearest = nearestIndex(color);
+        if(nearest < 0) return null;
+        nearestCache.setOpaque(slot, ((long) color << 32) | (nearest + 1));
+        return values[nearest];
+    }
+
+    private int exactIndex(int color) {
+        int mask = exactColors.length - 1;
+        int slot = hash(color) & mask;
+        int index;
+        while((index = exactIndices[slot]) != 0) {
+            if(exactColors[slot] == color) return index - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first mapped color with the smallest distance to {@code color}.
+     */
+    private int nearestIndex(int color) {
+        int closest = -1;
         int smallestDistance = Integer.MAX_VALUE;
-        for(int compare : colors) {
-            if(color == compare) {
-                closest = compare;
-                break;
-            }
-            int distance = ColorUtil.distance(color, compare);
+        for(int i = 0; i < colors.length; i++) {
+            int distance = ColorUtil.distance(color, colors[i]);
             if(distance < smallestDistance) {
                 smallestDistance = distance;
-                closest = compare;
+                closest = i;
             }
         }
-        return map.get(closest);
+        return closest;
     }
 
     @Override
@@ -0,0 +1,57 @@
+package com.dfsek.terra.addons.image.image;
+
+import java.awt.image.BufferedImage;
+import java.util.Optional;
+
+
+/**
+ * An image stored as a flat array of ARGB pixels, decoded once up front so reads avoid per-pixel color model conversion.
+ */
+public class ArrayImage implements Image {
+
+    private final int[] pixels;
+
+    private final int width, height;
+
+    private final String contentHash;
+
+    public ArrayImage(int[] pixels, int width, int height) {
+        this(pixels, width, height, null);
+    }
+
+    public ArrayImage(int[] pixels, int width, int height, String contentHash) {
+        if(pixels.length != width * height)
+            throw new IllegalArgumentException("Expected " + width * height + " pixels for a " + width + "x" + height + " image, got " +
+                                               pixels.length);
+        this.pixels = pixels;
+        this.width = width;
+        this.height = height;
+        this.contentHash = contentHash;
+    }
+
+    public static ArrayImage of(BufferedImage image, String contentHash) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        return new ArrayImage(image.getRGB(0, 0, width, height, null, 0, width), width, height, contentHash);
+    }
+
+    @Override
+    public int getRGB(int x, int y) {
+        return pixels[y * width + x];
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Optional<String> getContentHash() {
+        return Optional.ofNullable(contentHash);
+    }
+}
@@ -1,9 +1,20 @@
 package com.dfsek.terra.addons.image.image;
 
+import java.util.Optional;
+
+
 public interface Image {
     int getRGB(int x, int y);
 
     int getWidth();
 
     int getHeight();
+
+    /**
+     * @return A hash identifying the contents of this image, if one is known without reading every pixel. Used to key files
+     * derived from the image.
+     */
+    default Optional<String> getContentHash() {
+        return Optional.empty();
+    }
 }
@@ -0,0 +1,116 @@
+package com.dfsek.terra.addons.image.image;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+
+/**
+ * An image backed by a memory-mapped file of raw ARGB pixels, for images too large to comfortably keep on the heap.
+ * <p>
+ * The file consists of the width and height as two big-endian ints, followed by {@code width * height} big-endian ARGB ints in
+ * row-major order.
+ */
+public class MappedImage implements Image {
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    /*
+     * A single mapping is limited to 2GiB, so large images are split into several mappings of 2^26 pixels (256MiB) each.
+     */
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private final IntBuffer[] segments;
+
+    private final int width, height;
+
+    private final String contentHash;
+
+    private MappedImage(IntBuffer[] segments, int width, int height, String contentHash) {
+        this.segments = segments;
+        this.width = width;
+        this.height = height;
+        this.contentHash = contentHash;
+    }
+
+    public static MappedImage open(Path file, String contentHash) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() < HEADER_BYTES) throw new IOException("Raw image file " + file + " is missing its header");
+            ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_BYTES);
+            int width = header.getInt();
+            int height = header.getInt();
+            long pixels = (long) width * height;
+            if(channel.size() != HEADER_BYTES + pixels * Integer.BYTES)
+                throw new IOException("Raw image file " + file + " does not match its " + width + "x" + height + " header");
+
+            IntBuffer[] segments = new IntBuffer[(int) ((pixels + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for(int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                long length = Math.min(pixels - start, 1L << SEGMENT_SHIFT);
+                segments[i] = channel.map(MapMode.READ_ONLY, HEADER_BYTES + start * Integer.BYTES, length * Integer.BYTES).asIntBuffer();
+            }
+            return new MappedImage(segments, width, height, contentHash);
+        }
+    }
+
+    /**
+     * Writes the pixels of an image to a raw image file and maps it. The file is written to a temporary sibling first, so a
+     * partially written file is never picked up by {@link #open(Path, String)}.
+     */
+    public static MappedImage write(BufferedImage image, Path file, String contentHash) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, ByteBuffer.allocate(HEADER_BYTES).putInt(width).putInt(height).flip());
+
+            int[] row = new int[width];
+            ByteBuffer rowBuffer = ByteBuffer.allocate(width * Integer.BYTES);
+            for(int y = 0; y < height; y++) {
+                image.getRGB(0, y, width, 1, row, 0, width);
+                rowBuffer.clear();
+                rowBuffer.asIntBuffer().put(row);
+                writeFully(channel, rowBuffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        return open(file, contentHash);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public int getRGB(int x, int y) {
+        long index = (long) y * width + x;
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Optional<String> getContentHash() {
+        return Optional.ofNullable(contentHash);
+    }
+}
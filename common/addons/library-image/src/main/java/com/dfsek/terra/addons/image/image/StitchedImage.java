@@ -1,11 +1,23 @@
 package com.dfsek.terra.addons.image.image;
 
+import java.util.Optional;
+
+import com.dfsek.terra.addons.image.util.HashUtil;
+
+
 public class StitchedImage implements Image {
 
-    private final Image[][] images;
+    private final Image[] tiles;
+
+    private final int columns;
 
     private final int[] rowOffsets, columnOffsets;
 
+    /**
+     * Row / column index of the tile containing each y / x coordinate, so lookups don't have to search the offsets.
+     */
+    private final int[] rowIndices, columnIndices;
+
     private final int width, height;
 
     public StitchedImage(Image[][] images, boolean zeroIndexed) throws IllegalArgumentException {
@@ -29,37 +41,39 @@ public class StitchedImage implements Image {
             columnOffsets[i] = width;
             width += columnWidth;
             for(int j = 1; j < rows; j++) {
-                if(images[i][j].getWidth() != columnWidth)
+                if(images[j][i].getWidth() != columnWidth)
                     throw new IllegalArgumentException("Image widths in column " + (i + (zeroIndexed ? 0 : 1)) + " do not match");
             }
         }
 
         this.width = width;
         this.height = height;
-        this.images = images;
-    }
+        this.columns = columns;
+        this.rowIndices = buildIndex(rowOffsets, height);
+        this.columnIndices = buildIndex(columnOffsets, width);
 
-    private int getColumn(int x) {
-        for(int i = columnOffsets.length - 1; i > 0; i--) {
-            if(x >= columnOffsets[i])
-                return i;
+        this.tiles = new Image[rows * columns];
+        for(int i = 0; i < rows; i++) {
+            System.arraycopy(images[i], 0, tiles, i * columns, columns);
         }
-        return 0;
     }
 
-    private int getRow(int y) {
-        for(int i = rowOffsets.length - 1; i > 0; i--) {
-            if(y >= rowOffsets[i])
-                return i;
+    private static int[] buildIndex(int[] offsets, int size) {
+        int[] indices = new int[size];
+        for(int i = 0; i < offsets.length; i++) {
+            int end = i + 1 < offsets.length ? offsets[i + 1] : size;
+            for(int coordinate = offsets[i]; coordinate < end; coordinate++) {
+                indices[coordinate] = i;
+            }
         }
-        return 0;
+        return indices;
     }
 
     @Override
     public int getRGB(int x, int y) {
-        int row = getRow(y);
-        int column = getColumn(x);
-        return images[row][column].getRGB(x - columnOffsets[column], y - rowOffsets[row]);
+        int row = rowIndices[y];
+        int column = columnIndices[x];
+        return tiles[row * columns + column].getRGB(x - columnOffsets[column], y - rowOffsets[row]);
     }
 
     @Override
@@ -71,4 +85,15 @@ public class StitchedImage implements Image {
     public int getHeight() {
         return height;
     }
+
+    @Override
+    public Optional<String> getContentHash() {
+        StringBuilder tileHashes = new StringBuilder().append(tiles.length / columns).append('x').append(columns);
+        for(Image tile : tiles) {
+            Optional<String> hash = tile.getContentHash();
+            if(hash.isEmpty()) return Optional.empty();
+            tileHashes.append(':').append(hash.get());
+        }
+        return Optional.of(HashUtil.sha256(tileHashes.toString()));
+    }
 }
@@ -1,5 +1,6 @@
 package com.dfsek.terra.addons.image.image;
 
+import java.util.Optional;
 import java.util.function.Supplier;
 
 
@@ -25,4 +26,9 @@ public class SuppliedImage implements Image {
     public int getHeight() {
         return imageSupplier.get().getHeight();
     }
+
+    @Override
+    public Optional<String> getContentHash() {
+        return imageSupplier.get().getContentHash();
+    }
 }
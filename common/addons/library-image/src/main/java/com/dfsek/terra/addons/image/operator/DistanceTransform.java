@@ -2,24 +2,66 @@ package com.dfsek.terra.addons.image.operator;
 
 import com.dfsek.seismic.math.floatingpoint.FloatingPointFunctions;
 import com.dfsek.seismic.type.sampler.Sampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.dfsek.terra.addons.image.image.Image;
 import com.dfsek.terra.addons.image.util.ColorUtil;
 import com.dfsek.terra.addons.image.util.ColorUtil.Channel;
+import com.dfsek.terra.addons.image.util.HashUtil;
 
 import static com.dfsek.terra.addons.image.util.MathUtil.lerp;
 
 
 /**
- * Computes a 2D distance transform of a given image and stores the result in a 2D array of distances.
+ * Computes a 2D distance transform of a given image and stores the result in a flat array of distances.
  * Implementation based on the algorithm described in the paper
  * <a href="https://cs.brown.edu/people/pfelzens/papers/dt-final.pdf">Distance Transforms of Sampled Functions</a>
  * by Pedro F. Felzenszwalb and Daniel P. Huttenlocher.
  */
 public class DistanceTransform {
 
+    private static final Logger logger = LoggerFactory.getLogger(DistanceTransform.class);
+
     private static final double MAX_DISTANCE_CAP = 10_000_000; // Arbitrarily large value, doubtful someone would
-    private final double[][] distances;
+    // ever use an image large enough to exceed this.
+
+    /**
+     * Bumped whenever the computation or cache file layout changes, so stale cache files are not reused.
+     */
+    private static final int CACHE_VERSION = 1;
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    /**
+     * Number of rows or columns processed by a single task during parallel passes.
+     */
+    private static final int LINES_PER_TASK = 64;
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    /**
+     * Distances in row-major order, indexed by {@code y * width + x}.
+     */
+    private final double[] distances;
     /**
      * Size bounds matching the provided image.
      */
@@ -29,154 +71,260 @@ public class DistanceTransform {
      */
     private double minDistance, maxDistance;
 
-    // ever use an image large enough to exceed this.
     public DistanceTransform(Image image, Channel channel, int threshold, boolean clampToMaxEdgeDistance, CostFunction costFunction,
                              boolean invertThreshold) {
-        // Construct binary image based on threshold value
-        boolean[][] binaryImage = new boolean[image.getWidth()][image.getHeight()];
-        for(int x = 0; x < image.getWidth(); x++) {
-            for(int y = 0; y < image.getHeight(); y++) {
-                binaryImage[x][y] = ColorUtil.getChannel(image.getRGB(x, y), channel) > threshold ^ invertThreshold;
-            }
+        this(image.getWidth(), image.getHeight(),
+            calculate(image, channel, threshold, clampToMaxEdgeDistance, costFunction, invertThreshold));
+    }
+
+    private DistanceTransform(int width, int height, double[] distances) {
+        this.width = width;
+        this.height = height;
+        this.distances = distances;
+
+        setOutputRange();
+    }
+
+    /**
+     * Computes the distance transform of an image, or reads it from a cache file if the same image has been transformed with the
+     * same parameters before. Images without a {@link Image#getContentHash() content hash} are always computed.
+     *
+     * @param cacheDirectory Directory to read and write cache files in.
+     */
+    public static DistanceTransform cached(Path cacheDirectory, Image image, Channel channel, int threshold,
+                                           boolean clampToMaxEdgeDistance, CostFunction costFunction, boolean invertThreshold) {
+        Optional<String> imageHash = image.getContentHash();
+        if(imageHash.isEmpty()) {
+            return new DistanceTransform(image, channel, threshold, clampToMaxEdgeDistance, costFunction, invertThreshold);
         }
 
-        // Get edges of binary image
-        boolean[][] binaryImageEdge = new boolean[image.getWidth()][image.getHeight()];
-        for(int x = 0; x < image.getWidth(); x++) {
-            for(int y = 0; y < image.getHeight(); y++) {
-                if(!binaryImage[x][y])
-                    binaryImageEdge[x][y] = false;
-                else
-                    // If cell borders any false cell
-                    binaryImageEdge[x][y] = x > 0 && !binaryImage[x - 1][y] ||
-                                            y > 0 && !binaryImage[x][y - 1] ||
-                                            x < image.getWidth() - 1 && !binaryImage[x + 1][y] ||
-                                            y < image.getHeight() - 1 && !binaryImage[x][y + 1];
+        String key = HashUtil.sha256(
+            String.join(":", String.valueOf(CACHE_VERSION), imageHash.get(), channel.name(), String.valueOf(threshold),
+                String.valueOf(clampToMaxEdgeDistance), costFunction.name(), String.valueOf(invertThreshold)));
+        Path file = cacheDirectory.resolve(key + ".dt");
+
+        if(Files.exists(file)) {
+            try {
+                return read(file, image.getWidth(), image.getHeight());
+            } catch(IOException e) {
+                logger.warn("Failed to read cached distance transform {}, recomputing", file, e);
             }
         }
 
-        double[][] function = new double[image.getWidth()][image.getHeight()];
-        for(int x = 0; x < image.getWidth(); x++) {
-            for(int y = 0; y < image.getHeight(); y++) {
-                function[x][y] = switch(costFunction) {
-                    case Channel -> ColorUtil.getChannel(image.getRGB(x, y), channel);
-                    case Threshold -> binaryImage[x][y] ? MAX_DISTANCE_CAP : 0;
-                    case ThresholdEdge, ThresholdEdgeSigned -> binaryImageEdge[x][y] ? 0 : MAX_DISTANCE_CAP;
-                };
+        DistanceTransform transform = new DistanceTransform(image, channel, threshold, clampToMaxEdgeDistance, costFunction,
+            invertThreshold);
+        try {
+            Files.createDirectories(cacheDirectory);
+            transform.write(file);
+        } catch(IOException e) {
+            logger.warn("Failed to write cached distance transform {}", file, e);
+        }
+        return transform;
+    }
+
+    private static DistanceTransform read(Path file, int width, int height) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() != HEADER_BYTES + (long) width * height * Double.BYTES)
+                throw new IOException("Unexpected size of cached distance transform " + file);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header);
+            header.flip();
+            if(header.getInt() != width || header.getInt() != height)
+                throw new IOException("Cached distance transform " + file + " does not match image dimensions");
+
+            double[] distances = new double[width * height];
+            ByteBuffer buffer = ByteBuffer.allocate(width * Double.BYTES);
+            for(int y = 0; y < height; y++) {
+                buffer.clear();
+                readFully(channel, buffer);
+                buffer.flip();
+                buffer.asDoubleBuffer().get(distances, y * width, width);
             }
+            return new DistanceTransform(width, height, distances);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer) < 0) throw new EOFException();
         }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
 
-        distances = calculateDistance2D(function);
+    private static double[] calculate(Image image, Channel channel, int threshold, boolean clampToMaxEdgeDistance,
+                                      CostFunction costFunction, boolean invertThreshold) {
+        int width = image.getWidth();
+        int height = image.getHeight();
 
-        if(costFunction == CostFunction.ThresholdEdgeSigned) {
-            for(int x = 0; x < image.getWidth(); x++) {
-                for(int y = 0; y < image.getHeight(); y++) {
-                    distances[x][y] *= binaryImage[x][y] ? 1 : -1;
+        // Construct binary image based on threshold value
+        boolean[] binaryImage = new boolean[width * height];
+        forEachLine(height, (from, to) -> {
+            for(int y = from; y < to; y++) {
+                for(int x = 0; x < width; x++) {
+                    binaryImage[y * width + x] = ColorUtil.getChannel(image.getRGB(x, y), channel) > threshold ^ invertThreshold;
                 }
             }
+        });
+
+        double[] function = new double[width * height];
+        forEachLine(height, (from, to) -> {
+            for(int y = from; y < to; y++) {
+                for(int x = 0; x < width; x++) {
+                    int i = y * width + x;
+                    function[i] = switch(costFunction) {
+                        case Channel -> ColorUtil.getChannel(image.getRGB(x, y), channel);
+                        case Threshold -> binaryImage[i] ? MAX_DISTANCE_CAP : 0;
+                        case ThresholdEdge, ThresholdEdgeSigned -> isEdge(binaryImage, width, height, x, y) ? 0 : MAX_DISTANCE_CAP;
+                    };
+                }
+            }
+        });
+
+        double[] distances = calculateDistance2D(function, width, height);
+
+        if(costFunction == CostFunction.ThresholdEdgeSigned) {
+            for(int i = 0; i < distances.length; i++) {
+                distances[i] *= binaryImage[i] ? 1 : -1;
+            }
         }
 
         if(clampToMaxEdgeDistance) {
             // Find the largest value on the edge of the image
             double max = Double.NEGATIVE_INFINITY;
-            for(int x = 0; x < image.getWidth(); x++) {
-                max = Math.max(max, distances[x][0]);
-                max = Math.max(max, distances[x][image.getHeight() - 1]);
+            for(int x = 0; x < width; x++) {
+                max = Math.max(max, distances[x]);
+                max = Math.max(max, distances[(height - 1) * width + x]);
             }
-            for(int y = 0; y < image.getHeight(); y++) {
-                max = Math.max(max, distances[0][y]);
-                max = Math.max(max, distances[image.getWidth() - 1][y]);
+            for(int y = 0; y < height; y++) {
+                max = Math.max(max, distances[y * width]);
+                max = Math.max(max, distances[y * width + width - 1]);
             }
             // Clamp to that largest value
-            for(int x = 0; x < image.getWidth(); x++) {
-                for(int y = 0; y < image.getHeight(); y++) {
-                    distances[x][y] = Math.max(max, distances[x][y]);
-                }
+            for(int i = 0; i < distances.length; i++) {
+                distances[i] = Math.max(max, distances[i]);
             }
         }
 
-        this.width = image.getWidth();
-        this.height = image.getHeight();
+        return distances;
+    }
 
-        setOutputRange();
+    /**
+     * Whether a cell of the binary image is set and borders any unset cell.
+     */
+    private static boolean isEdge(boolean[] binaryImage, int width, int height, int x, int y) {
+        int i = y * width + x;
+        if(!binaryImage[i]) return false;
+        return x > 0 && !binaryImage[i - 1] ||
+               y > 0 && !binaryImage[i - width] ||
+               x < width - 1 && !binaryImage[i + 1] ||
+               y < height - 1 && !binaryImage[i + width];
     }
 
-    private double[][] calculateDistance2D(double[][] f) {
-        double[][] d = new double[f.length][f[0].length];
+    private static double[] calculateDistance2D(double[] f, int width, int height) {
+        double[] d = new double[width * height];
         // Distance pass for each column
-        for(int x = 0; x < f.length; x++) {
-            d[x] = calculateDistance1D(f[x]);
-        }
+        forEachLine(width, (from, to) -> {
+            Pass pass = new Pass(height);
+            for(int x = from; x < to; x++) {
+                for(int y = 0; y < height; y++)
+                    pass.f[y] = f[y * width + x];
+                pass.calculate(height);
+                for(int y = 0; y < height; y++)
+                    d[y * width + x] = pass.d[y];
+            }
+        });
         // Distance pass for each row
-        double[] row = new double[f.length];
-        for(int y = 0; y < f[0].length; y++) {
-            for(int x = 0; x < f[0].length; x++)
-                row[x] = d[x][y];
-            row = calculateDistance1D(row);
-            for(int x = 0; x < f[0].length; x++) {
-                d[x][y] = Math.sqrt(row[x]);
+        forEachLine(height, (from, to) -> {
+            Pass pass = new Pass(width);
+            for(int y = from; y < to; y++) {
+                System.arraycopy(d, y * width, pass.f, 0, width);
+                pass.calculate(width);
+                for(int x = 0; x < width; x++) {
+                    d[y * width + x] = Math.sqrt(pass.d[x]);
+                }
             }
-        }
+        });
         return d;
     }
 
-    private double[] calculateDistance1D(double[] f) {
-        double[] d = new double[f.length];
-        int[] v = new int[f.length];
-        double[] z = new double[f.length + 1];
-        int k = 0;
-        v[0] = 0;
-        z[0] = Integer.MIN_VALUE;
-        z[1] = Integer.MAX_VALUE;
-        for(int q = 1; q <= f.length - 1; q++) {
-            double fqPlusQ2 = (f[q] + Math.pow(q, 2));
-            double twoQ = 2 * q;
-            double s = (fqPlusQ2 - (f[v[k]] + Math.pow(v[k], 2))) / (twoQ - 2 * v[k]);
-            while(s <= z[k]) {
-                k--;
-                s = (fqPlusQ2 - (f[v[k]] + Math.pow(v[k], 2))) / (twoQ - 2 * v[k]);
+    /**
+     * Splits {@code lines} into blocks and runs them on the shared executor, waiting for all of them to complete.
+     */
+    private static void forEachLine(int lines, LineTask task) {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for(int from = 0; from < lines; from += LINES_PER_TASK) {
+            int start = from;
+            int end = Math.min(lines, from + LINES_PER_TASK);
+            tasks.add(() -> {
+                task.run(start, end);
+                return null;
+            });
+        }
+        try {
+            for(Future<Void> future : EXECUTOR.invokeAll(tasks)) {
+                future.get();
             }
-            k++;
-            v[k] = q;
-            z[k] = s;
-            z[k + 1] = Integer.MAX_VALUE;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing distance transform", e);
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("Failed to compute distance transform", e.getCause());
         }
+    }
 
-        k = 0;
-        for(int q = 0; q <= f.length - 1; q++) {
-            while(z[k + 1] < q)
-                k++;
-            d[q] = Math.pow(q - v[k], 2) + f[v[k]];
+    private static ExecutorService createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "Terra-Distance-Transform-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, ByteBuffer.allocate(HEADER_BYTES).putInt(width).putInt(height).flip());
+            ByteBuffer buffer = ByteBuffer.allocate(width * Double.BYTES);
+            for(int y = 0; y < height; y++) {
+                buffer.clear();
+                buffer.asDoubleBuffer().put(distances, y * width, width);
+                writeFully(channel, buffer);
+            }
         }
-        return d;
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
     }
 
     /**
      * Redistributes the stored distance computation according to the provided {@link Normalization} method.
      */
     private void normalize(Normalization normalization) {
-        for(int x = 0; x < width; x++) {
-            for(int y = 0; y < height; y++) {
-                double d = distances[x][y];
-                distances[x][y] = switch(normalization) {
-                    case None -> distances[x][y];
-                    case Linear -> lerp(d, minDistance, -1, maxDistance, 1);
-                    case SmoothPreserveZero -> {
-                        if(minDistance > 0 || maxDistance < 0) {
-                            // Can't preserve zero if it is not contained in range so just lerp
-                            yield lerp(distances[x][y], minDistance, -1, maxDistance, 1);
+        for(int i = 0; i < distances.length; i++) {
+            double d = distances[i];
+            distances[i] = switch(normalization) {
+                case None -> d;
+                case Linear -> lerp(d, minDistance, -1, maxDistance, 1);
+                case SmoothPreserveZero -> {
+                    if(minDistance > 0 || maxDistance < 0) {
+                        // Can't preserve zero if it is not contained in range so just lerp
+                        yield lerp(d, minDistance, -1, maxDistance, 1);
+                    } else {
+                        if(d > 0) {
+                            yield Math.pow(d / maxDistance, 2);
+                        } else if(d < 0) {
+                            yield -Math.pow(d / minDistance, 2);
                         } else {
-                            if(d > 0) {
-                                yield Math.pow(d / maxDistance, 2);
-                            } else if(d < 0) {
-                                yield -Math.pow(d / minDistance, 2);
-                            } else {
-                                yield 0;
-                            }
+                            yield 0;
                         }
                     }
-                };
-            }
+                }
+            };
         }
         setOutputRange();
     }
@@ -184,11 +332,9 @@ public class DistanceTransform {
     private void setOutputRange() {
         double minDistance = Double.POSITIVE_INFINITY;
         double maxDistance = Double.NEGATIVE_INFINITY;
-        for(int x = 0; x < width; x++) {
-            for(int y = 0; y < height; y++) {
-                minDistance = Math.min(minDistance, distances[x][y]);
-                maxDistance = Math.max(maxDistance, distances[x][y]);
-            }
+        for(double distance : distances) {
+            minDistance = Math.min(minDistance, distance);
+            maxDistance = Math.max(maxDistance, distance);
         }
         this.minDistance = minDistance;
         this.maxDistance = maxDistance;
@@ -222,6 +368,58 @@ public class DistanceTransform {
     }
 
 
+    @FunctionalInterface
+    private interface LineTask {
+        void run(int from, int to);
+    }
+
+
+    /**
+     * Scratch buffers for a 1D distance pass, reused across lines processed by the same task.
+     */
+    private static final class Pass {
+        private final double[] f;
+        private final double[] d;
+        private final int[] v;
+        private final double[] z;
+
+        private Pass(int size) {
+            this.f = new double[size];
+            this.d = new double[size];
+            this.v = new int[size];
+            this.z = new double[size + 1];
+        }
+
+        private void calculate(int length) {
+            int k = 0;
+            v[0] = 0;
+            z[0] = Integer.MIN_VALUE;
+            z[1] = Integer.MAX_VALUE;
+            for(int q = 1; q <= length - 1; q++) {
+                double fqPlusQ2 = f[q] + (double) q * q;
+                double twoQ = 2 * q;
+                double s = (fqPlusQ2 - (f[v[k]] + (double) v[k] * v[k])) / (twoQ - 2 * v[k]);
+                while(s <= z[k]) {
+                    k--;
+                    s = (fqPlusQ2 - (f[v[k]] + (double) v[k] * v[k])) / (twoQ - 2 * v[k]);
+                }
+                k++;
+                v[k] = q;
+                z[k] = s;
+                z[k + 1] = Integer.MAX_VALUE;
+            }
+
+            k = 0;
+            for(int q = 0; q <= length - 1; q++) {
+                while(z[k + 1] < q)
+                    k++;
+                double offset = q - v[k];
+                d[q] = offset * offset + f[v[k]];
+            }
+        }
+    }
+
+
     public static class Noise implements Sampler {
 
         private final DistanceTransform transform;
@@ -234,7 +432,7 @@ public class DistanceTransform {
         @Override
         public double getSample(long seed, double x, double y) {
             if(x < 0 || y < 0 || x >= transform.width || y >= transform.height) return transform.minDistance;
-            return transform.distances[FloatingPointFunctions.floor(x)][FloatingPointFunctions.floor(y)];
+            return transform.distances[FloatingPointFunctions.floor(y) * transform.width + FloatingPointFunctions.floor(x)];
         }
 
         @Override
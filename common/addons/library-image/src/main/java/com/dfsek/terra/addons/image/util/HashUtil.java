@@ -0,0 +1,30 @@
+package com.dfsek.terra.addons.image.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+
+public class HashUtil {
+
+    private HashUtil() { }
+
+    /**
+     * Returns the hex encoded SHA-256 hash of the given data.
+     */
+    public static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the hex encoded SHA-256 hash of the UTF-8 encoding of the given string.
+     */
+    public static String sha256(String data) {
+        return sha256(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,6 +1,7 @@
-version = version("1.0.0")
+version = version("1.1.0")
 
 dependencies {
     compileOnlyApi(project(":common:addons:manifest-addon-loader"))
     compileOnlyApi(project(":common:addons:chunk-generator-noise-3d"))
+    compileOnlyApi(project(":common:addons:config-number-predicate"))
 }
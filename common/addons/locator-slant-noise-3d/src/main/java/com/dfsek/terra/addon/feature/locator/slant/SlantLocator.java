@@ -3,6 +3,7 @@ package com.dfsek.terra.addon.feature.locator.slant;
 import java.util.function.DoublePredicate;
 
 import com.dfsek.terra.addons.chunkgenerator.generation.NoiseChunkGenerator3D;
+import com.dfsek.terra.addons.numberpredicate.DoubleRangePredicate;
 import com.dfsek.terra.api.structure.feature.BinaryColumn;
 import com.dfsek.terra.api.structure.feature.Locator;
 import com.dfsek.terra.api.world.World;
@@ -11,6 +12,11 @@ import com.dfsek.terra.api.world.chunk.generation.util.Column;
 
 
 public class SlantLocator implements Locator {
+    /**
+     * Number of y values to calculate slant for at once. Slant is calculated one range at a time, on first access, so a
+     * column narrowed down by other locators (e.g. {@code AND[SURFACE, SLANT]}) only pays for the ranges it reads.
+     */
+    private static final int RANGE_SIZE = 8;
 
     private final DoublePredicate predicate;
 
@@ -20,13 +26,31 @@ public class SlantLocator implements Locator {
 
     @Override
     public BinaryColumn getSuitableCoordinates(Column<?> column) {
+        if(predicate instanceof DoubleRangePredicate range && range.isEmpty()) {
+            return BinaryColumn.getNull();
+        }
+        int x = column.getX();
+        int z = column.getZ();
+        int minY = column.getMinY();
+        int maxY = column.getMaxY();
+        World world = column.getWorld();
+        NoiseChunkGenerator3D generator = (NoiseChunkGenerator3D) world.getGenerator();
+        BiomeProvider biomeProvider = world.getBiomeProvider();
+        boolean[] suitable = new boolean[maxY - minY];
+        boolean[] calculated = new boolean[(maxY - minY + RANGE_SIZE - 1) / RANGE_SIZE];
         return column.newBinaryColumn(y -> {
-            int x = column.getX();
-            int z = column.getZ();
-            World world = column.getWorld();
-            NoiseChunkGenerator3D generator = (NoiseChunkGenerator3D) world.getGenerator();
-            BiomeProvider biomeProvider = world.getBiomeProvider();
-            return predicate.test(generator.getSlant(x, y, z, world, biomeProvider));
+            int index = y - minY;
+            int range = index / RANGE_SIZE;
+            if(!calculated[range]) {
+                int rangeMinY = minY + range * RANGE_SIZE;
+                int rangeMaxY = Math.min(rangeMinY + RANGE_SIZE, maxY);
+                double[] slants = generator.getSlantColumn(x, z, rangeMinY, rangeMaxY, world, biomeProvider);
+                for(int i = 0; i < slants.length; i++) {
+                    suitable[rangeMinY - minY + i] = predicate.test(slants[i]);
+                }
+                calculated[range] = true;
+            }
+            return suitable[index];
         });
     }
 }
@@ -0,0 +1,7 @@
+version = version("1.0.0")
+
+dependencies {
+    compileOnlyApi(project(":common:addons:manifest-addon-loader"))
+    compileOnlyApi(project(":common:addons:biome-query-api"))
+    compileOnlyApi(project(":common:addons:structure-terrascript-loader"))
+}
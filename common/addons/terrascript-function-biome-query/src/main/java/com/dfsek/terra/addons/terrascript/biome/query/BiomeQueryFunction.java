@@ -0,0 +1,63 @@
+package com.dfsek.terra.addons.terrascript.biome.query;
+
+import com.dfsek.seismic.math.floatingpoint.FloatingPointFunctions;
+import com.dfsek.seismic.type.vector.Vector2;
+import com.dfsek.seismic.type.vector.Vector3;
+
+import com.dfsek.terra.addons.biome.query.api.BiomeQuery;
+import com.dfsek.terra.addons.terrascript.parser.lang.ImplementationArguments;
+import com.dfsek.terra.addons.terrascript.parser.lang.Returnable;
+import com.dfsek.terra.addons.terrascript.parser.lang.Scope;
+import com.dfsek.terra.addons.terrascript.parser.lang.functions.Function;
+import com.dfsek.terra.addons.terrascript.script.TerraImplementationArguments;
+import com.dfsek.terra.addons.terrascript.tokenizer.Position;
+import com.dfsek.terra.api.world.biome.Biome;
+
+
+public class BiomeQueryFunction implements Function<Boolean> {
+    private final Returnable<Number> x, y, z;
+    private final Returnable<String> query;
+    private final java.util.function.Function<String, BiomeQuery> resolver;
+    private final Position position;
+
+    public BiomeQueryFunction(Returnable<Number> x, Returnable<Number> y, Returnable<Number> z, Returnable<String> query,
+                              java.util.function.Function<String, BiomeQuery> resolver, Position position) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.query = query;
+        this.resolver = resolver;
+        this.position = position;
+    }
+
+    @Override
+    public Boolean apply(ImplementationArguments implementationArguments, Scope scope) {
+        return applyBoolean(implementationArguments, scope);
+    }
+
+    @Override
+    public boolean applyBoolean(ImplementationArguments implementationArguments, Scope scope) {
+        TerraImplementationArguments arguments = (TerraImplementationArguments) implementationArguments;
+
+        Vector2 xz = Vector2.Mutable.of(x.apply(implementationArguments, scope).doubleValue(),
+            z.apply(implementationArguments, scope).doubleValue()).rotate(arguments.getRotation());
+
+        Biome biome = arguments.getWorld().getBiomeProvider().getBiome(arguments.getOrigin().toFloat()
+            .mutable()
+            .add(Vector3.of(FloatingPointFunctions.round(xz.getX()),
+                y.apply(implementationArguments, scope).intValue(),
+                FloatingPointFunctions.round(xz.getZ()))).immutable(), arguments.getWorld().getSeed());
+
+        return resolver.apply(query.apply(implementationArguments, scope)).test(biome);
+    }
+
+    @Override
+    public Position getPosition() {
+        return position;
+    }
+
+    @Override
+    public ReturnType returnType() {
+        return ReturnType.BOOLEAN;
+    }
+}
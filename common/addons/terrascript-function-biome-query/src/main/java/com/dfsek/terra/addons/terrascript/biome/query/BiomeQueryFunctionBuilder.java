@@ -0,0 +1,67 @@
+package com.dfsek.terra.addons.terrascript.biome.query;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.dfsek.terra.addons.biome.query.api.BiomeQueries;
+import com.dfsek.terra.addons.biome.query.api.BiomeQuery;
+import com.dfsek.terra.addons.terrascript.parser.exceptions.ParseException;
+import com.dfsek.terra.addons.terrascript.parser.lang.Returnable;
+import com.dfsek.terra.addons.terrascript.parser.lang.Returnable.ReturnType;
+import com.dfsek.terra.addons.terrascript.parser.lang.constants.StringConstant;
+import com.dfsek.terra.addons.terrascript.parser.lang.functions.FunctionBuilder;
+import com.dfsek.terra.addons.terrascript.tokenizer.Position;
+
+
+/**
+ * Builds {@code biomeQuery(x, y, z, query)}, which tests the biome at a position relative to the structure origin against a biome
+ * tag query.
+ */
+public class BiomeQueryFunctionBuilder implements FunctionBuilder<BiomeQueryFunction> {
+    /**
+     * Maximum number of distinct non-constant query strings to keep compiled queries for.
+     */
+    private static final int MAX_CACHED_QUERIES = 256;
+
+    private final Cache<String, BiomeQuery> queries = Caffeine
+        .newBuilder()
+        .maximumSize(MAX_CACHED_QUERIES)
+        .build();
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public BiomeQueryFunction build(List<Returnable<?>> argumentList, Position position) {
+        Returnable<String> query = (Returnable<String>) argumentList.get(3);
+        Function<String, BiomeQuery> resolver;
+        if(query instanceof StringConstant constant) { // Compile constant queries once, when the script is parsed.
+            BiomeQuery compiled;
+            try {
+                compiled = BiomeQueries.parse(constant.getConstant());
+            } catch(IllegalArgumentException e) {
+                throw new ParseException("Invalid biome tag query: " + e.getMessage(), position, e);
+            }
+            resolver = string -> compiled;
+        } else {
+            resolver = string -> queries.get(string, BiomeQueries::parse);
+        }
+        return new BiomeQueryFunction((Returnable<Number>) argumentList.get(0), (Returnable<Number>) argumentList.get(1),
+            (Returnable<Number>) argumentList.get(2), query, resolver, position);
+    }
+
+    @Override
+    public int argNumber() {
+        return 4;
+    }
+
+    @Override
+    public ReturnType getArgument(int position) {
+        return switch(position) {
+            case 0, 1, 2 -> ReturnType.NUMBER;
+            case 3 -> ReturnType.STRING;
+            default -> null;
+        };
+    }
+}
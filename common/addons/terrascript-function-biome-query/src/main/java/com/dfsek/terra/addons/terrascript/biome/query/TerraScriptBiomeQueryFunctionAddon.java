@@ -0,0 +1,31 @@
+package com.dfsek.terra.addons.terrascript.biome.query;
+
+import com.dfsek.terra.addons.manifest.api.AddonInitializer;
+import com.dfsek.terra.addons.terrascript.parser.lang.functions.FunctionBuilder;
+import com.dfsek.terra.api.Platform;
+import com.dfsek.terra.api.addon.BaseAddon;
+import com.dfsek.terra.api.event.events.config.pack.ConfigPackPreLoadEvent;
+import com.dfsek.terra.api.event.functional.FunctionalEventHandler;
+import com.dfsek.terra.api.inject.annotations.Inject;
+
+
+public class TerraScriptBiomeQueryFunctionAddon implements AddonInitializer {
+    @Inject
+    private Platform platform;
+
+    @Inject
+    private BaseAddon addon;
+
+    @Override
+    public void initialize() {
+        platform.getEventManager()
+            .getHandler(FunctionalEventHandler.class)
+            .register(addon, ConfigPackPreLoadEvent.class)
+            .priority(51)
+            .then(event -> event
+                .getPack()
+                .getOrCreateRegistry(FunctionBuilder.class)
+                .register(addon.key("biomeQuery"), new BiomeQueryFunctionBuilder()))
+            .failThrough();
+    }
+}
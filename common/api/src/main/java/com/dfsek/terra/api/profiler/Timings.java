@@ -16,29 +16,145 @@ import java.util.Map;
 import java.util.Set;
 
 
+/**
+ * Aggregated timings of a profiler frame.
+ * <p>
+ * Individual samples are not retained. Instead, they are recorded into a fixed-size histogram of logarithmic buckets, each split
+ * into {@value #SUB_BUCKETS} linear sub-buckets, so memory use is constant and percentiles are accurate to within ~6%.
+ */
 public class Timings {
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * Number of linear sub-buckets per power of two.
+     */
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Total number of histogram buckets, enough to cover all non-negative {@code long} values.
+     */
+    public static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
     private final Map<String, Timings> subItems = new HashMap<>();
 
-    private final List<Long> timings = new ArrayList<>();
+    private final long[] buckets = new long[BUCKETS];
+    private long count = 0;
+    private long sum = 0;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * Get the histogram bucket a time falls into.
+     *
+     * @param time Time, in nanoseconds.
+     *
+     * @return Index of the bucket, in {@code [0, BUCKETS)}.
+     */
+    public static int bucket(long time) {
+        if(time < SUB_BUCKETS) return (int) Math.max(0, time);
+        int exponent = 63 - Long.numberOfLeadingZeros(time);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((time >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Get the smallest time that falls into a histogram bucket.
+     *
+     * @param bucket Index of the bucket.
+     *
+     * @return Lower bound of the bucket, in nanoseconds.
+     */
+    public static long bucketLowerBound(int bucket) {
+        if(bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
 
     public void addTime(long time) {
-        timings.add(time);
+        buckets[bucket(time)]++;
+        count++;
+        sum += time;
+        min = Math.min(min, time);
+        max = Math.max(max, time);
+    }
+
+    /**
+     * Merge pre-aggregated samples into these timings.
+     *
+     * @param count        Number of samples.
+     * @param sum          Sum of all samples.
+     * @param min          Smallest sample.
+     * @param max          Largest sample.
+     * @param bucketCounts Number of samples in each histogram bucket, of length {@link #BUCKETS}.
+     */
+    public void addTimes(long count, long sum, long min, long max, long[] bucketCounts) {
+        if(count == 0) return;
+        for(int i = 0; i < BUCKETS; i++) {
+            buckets[i] += bucketCounts[i];
+        }
+        this.count += count;
+        this.sum += sum;
+        this.min = Math.min(this.min, min);
+        this.max = Math.max(this.max, max);
+    }
+
+    /**
+     * Get the recorded times.
+     *
+     * @return A sample per recorded time, each the lower bound of the histogram bucket it fell into, in ascending order.
+     *
+     * @deprecated Individual samples are no longer retained, this rebuilds an approximation of them from the histogram at the
+     *     cost of a list as long as {@link #count()}. Use {@link #percentile(double)}, {@link #average()}, {@link #min()} and
+     *     {@link #max()} instead.
+     */
+    @Deprecated
+    public List<Long> getTimings() {
+        List<Long> timings = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE - 8));
+        for(int i = 0; i < BUCKETS; i++) {
+            long time = Math.max(min, Math.min(max, bucketLowerBound(i)));
+            for(long j = 0; j < buckets[i]; j++) {
+                timings.add(time);
+            }
+        }
+        return timings;
     }
 
     public double average() {
-        return (double) timings.stream().reduce(0L, Long::sum) / timings.size();
+        return (double) sum / count;
     }
 
     public long max() {
-        return timings.stream().mapToLong(Long::longValue).max().orElse(0L);
+        return count == 0 ? 0L : max;
     }
 
     public long min() {
-        return timings.stream().mapToLong(Long::longValue).min().orElse(0L);
+        return count == 0 ? 0L : min;
     }
 
     public double sum() {
-        return timings.stream().mapToDouble(Long::doubleValue).sum();
+        return sum;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Get an approximate percentile of the recorded times.
+     *
+     * @param percentile Percentile, in {@code [0, 100]}.
+     *
+     * @return Lower bound of the histogram bucket containing the percentile, in nanoseconds.
+     */
+    public long percentile(double percentile) {
+        if(count == 0) return 0L;
+        long target = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if(seen >= target) return Math.max(min, Math.min(max, bucketLowerBound(i)));
+        }
+        return max;
     }
 
     @Override
@@ -50,7 +166,8 @@ public class Timings {
         StringBuilder builder = new StringBuilder();
 
         builder.append((double) min() / 1000000).append("ms min / ").append(average() / 1000000).append("ms avg / ")
-            .append((double) max() / 1000000).append("ms max (").append(timings.size()).append(" samples, ")
+            .append((double) percentile(99) / 1000000).append("ms p99 / ")
+            .append((double) max() / 1000000).append("ms max (").append(count).append(" samples, ")
             .append((sum() / parent.sum()) * 100).append("% of parent)");
 
         List<String> frames = new ArrayList<>();
@@ -71,10 +188,6 @@ public class Timings {
         return builder.toString();
     }
 
-    public List<Long> getTimings() {
-        return timings;
-    }
-
     public Timings getSubItem(String id) {
         return subItems.computeIfAbsent(id, s -> new Timings());
     }
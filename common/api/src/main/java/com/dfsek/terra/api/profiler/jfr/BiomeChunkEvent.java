@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the common/api directory.
+ */
+
+package com.dfsek.terra.api.profiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Flight Recorder event spanning the computation of a chunk of biomes by a biome provider that works on whole chunks, such
+ * as the pipeline provider. The chunk coordinates are in the provider's own chunk grid, not necessarily that of the world.
+ * <p>
+ * Disabled by default.
+ */
+@Name("terra.BiomeChunk")
+@Label("Biome Chunk")
+@Category({ "Terra", "Biome" })
+@Description("Computation of a chunk of biomes")
+@Enabled(false)
+@StackTrace(false)
+public class BiomeChunkEvent extends Event {
+    @Label("Provider")
+    public String provider;
+
+    @Label("Chunk X")
+    public int chunkX;
+
+    @Label("Chunk Z")
+    public int chunkZ;
+
+    @Label("Seed")
+    public long seed;
+}
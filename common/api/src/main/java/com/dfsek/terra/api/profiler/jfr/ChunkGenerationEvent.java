@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the common/api directory.
+ */
+
+package com.dfsek.terra.api.profiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Flight Recorder event spanning the generation of a chunk's base terrain by a
+ * {@link com.dfsek.terra.api.world.chunk.generation.ChunkGenerator}.
+ * <p>
+ * Disabled by default, enable it in the recording settings, e.g.
+ * {@code -XX:StartFlightRecording:terra.ChunkGeneration#enabled=true}.
+ */
+@Name("terra.ChunkGeneration")
+@Label("Chunk Generation")
+@Category({ "Terra", "Generation" })
+@Description("Generation of a chunk's base terrain")
+@Enabled(false)
+@StackTrace(false)
+public class ChunkGenerationEvent extends Event {
+    @Label("Pack")
+    public String pack;
+
+    @Label("Chunk X")
+    public int chunkX;
+
+    @Label("Chunk Z")
+    public int chunkZ;
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the common/api directory.
+ */
+
+package com.dfsek.terra.api.profiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Flight Recorder event spanning a single
+ * {@link com.dfsek.terra.api.world.chunk.generation.stage.GenerationStage#populate(com.dfsek.terra.api.world.chunk.generation.ProtoWorld)}
+ * call.
+ * <p>
+ * Disabled by default.
+ */
+@Name("terra.GenerationStage")
+@Label("Generation Stage")
+@Category({ "Terra", "Generation" })
+@Description("Population of a chunk by a generation stage")
+@Enabled(false)
+@StackTrace(false)
+public class GenerationStageEvent extends Event {
+    @Label("Pack")
+    public String pack;
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Chunk X")
+    public int chunkX;
+
+    @Label("Chunk Z")
+    public int chunkZ;
+}
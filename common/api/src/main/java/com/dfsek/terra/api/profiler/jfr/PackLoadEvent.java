@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the common/api directory.
+ */
+
+package com.dfsek.terra.api.profiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Flight Recorder event spanning the loading of a {@link com.dfsek.terra.api.config.ConfigPack}.
+ * <p>
+ * Disabled by default.
+ */
+@Name("terra.PackLoad")
+@Label("Config Pack Load")
+@Category("Terra")
+@Description("Loading of a config pack")
+@Enabled(false)
+@StackTrace(false)
+public class PackLoadEvent extends Event {
+    @Label("Pack")
+    public String pack;
+
+    @Label("Path")
+    public String path;
+}
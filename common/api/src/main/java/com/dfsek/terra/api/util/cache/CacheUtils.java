@@ -1,9 +1,51 @@
 package com.dfsek.terra.api.util.cache;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
 
 public class CacheUtils {
     public static final Executor CACHE_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    /**
+     * Whether caches built with {@link #recordStats(Caffeine, String)} record statistics. Off unless the
+     * {@code terra.cache.stats} system property is set, since recording costs a little on every access.
+     */
+    public static final boolean RECORD_STATS = Boolean.getBoolean("terra.cache.stats");
+
+    private static final Map<String, ConcurrentStatsCounter> STATS = new ConcurrentHashMap<>();
+    private static final Map<String, CacheStats> BASELINES = new ConcurrentHashMap<>();
+
+    /**
+     * Record the statistics of caches built with a builder under a name, if {@link #RECORD_STATS} is set. Every cache recorded
+     * under the same name, e.g. per-thread or per-seed copies of one cache, shares one set of statistics.
+     */
+    public static <K, V> Caffeine<K, V> recordStats(Caffeine<K, V> builder, String name) {
+        if(!RECORD_STATS) return builder;
+        ConcurrentStatsCounter counter = STATS.computeIfAbsent(name, n -> new ConcurrentStatsCounter());
+        return builder.recordStats(() -> counter);
+    }
+
+    /**
+     * Get a snapshot of the statistics recorded since the last {@link #resetStats()}, by cache name.
+     */
+    public static Map<String, CacheStats> getStats() {
+        Map<String, CacheStats> stats = new TreeMap<>();
+        STATS.forEach((name, counter) -> stats.put(name, counter.snapshot().minus(BASELINES.getOrDefault(name, CacheStats.empty()))));
+        return stats;
+    }
+
+    /**
+     * Discard the statistics recorded so far.
+     */
+    public static void resetStats() {
+        STATS.forEach((name, counter) -> BASELINES.put(name, counter.snapshot()));
+    }
 }
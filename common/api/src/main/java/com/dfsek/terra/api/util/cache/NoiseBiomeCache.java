@@ -0,0 +1,70 @@
+package com.dfsek.terra.api.util.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Scheduler;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.dfsek.terra.api.util.function.IntIntIntFunction;
+
+import static com.dfsek.terra.api.util.cache.CacheUtils.CACHE_EXECUTOR;
+
+
+/**
+ * Cache of values sampled at noise biome resolution, i.e. one value per 4x4x4 block cell, as platforms query biome sources.
+ * <p>
+ * Cells are grouped by chunk section and computed lazily, so repeated queries for the same chunk (structure checks, mob spawning,
+ * terrain blending) only compute each cell once.
+ *
+ * @param <T> Type of cached value.
+ */
+public class NoiseBiomeCache<T> {
+    private static final int CELLS_PER_SECTION = 4 * 4 * 4;
+
+    private final IntIntIntFunction<T> function;
+    private final LoadingCache<Long, AtomicReferenceArray<T>> sections;
+
+    /**
+     * @param maximumSections Maximum number of chunk sections to keep cells for.
+     * @param function        Function computing the value of a cell, from its cell coordinates.
+     */
+    public NoiseBiomeCache(int maximumSections, IntIntIntFunction<T> function) {
+        this.function = function;
+        this.sections = Caffeine
+            .newBuilder()
+            .executor(CACHE_EXECUTOR)
+            .scheduler(Scheduler.systemScheduler())
+            .maximumSize(maximumSections)
+            .build(key -> new AtomicReferenceArray<>(CELLS_PER_SECTION));
+    }
+
+    private static long sectionKey(int sectionX, int sectionY, int sectionZ) {
+        return ((long) sectionX & 0x3FFFFFFL) << 38 | ((long) sectionY & 0xFFFL) << 26 | (long) sectionZ & 0x3FFFFFFL;
+    }
+
+    /**
+     * Get the value of a cell, computing it if it is not cached.
+     *
+     * @param cellX X coordinate of the cell, in blocks divided by 4.
+     * @param cellY Y coordinate of the cell, in blocks divided by 4.
+     * @param cellZ Z coordinate of the cell, in blocks divided by 4.
+     *
+     * @return The value of the cell.
+     */
+    public T get(int cellX, int cellY, int cellZ) {
+        AtomicReferenceArray<T> section = sections.get(sectionKey(cellX >> 2, cellY >> 2, cellZ >> 2));
+        int index = (cellX & 3) << 4 | (cellY & 3) << 2 | cellZ & 3;
+        T value = section.getAcquire(index);
+        if(value == null) {
+            // Computing a cell twice under contention is harmless, both threads get the same value.
+            value = function.apply(cellX, cellY, cellZ);
+            section.setRelease(index, value);
+        }
+        return value;
+    }
+
+    public void invalidateAll() {
+        sections.invalidateAll();
+    }
+}
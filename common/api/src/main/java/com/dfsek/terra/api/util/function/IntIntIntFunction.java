@@ -0,0 +1,6 @@
+package com.dfsek.terra.api.util.function;
+
+@FunctionalInterface
+public interface IntIntIntFunction<T> {
+    T apply(int i, int j, int k);
+}
@@ -44,6 +44,23 @@ public interface ReadableWorld extends World {
         return getBlockState(position.getX(), position.getY(), position.getZ());
     }
 
+    /**
+     * Get the {@link BlockState}s of a vertical range of a column.
+     * <p>
+     * Implementations may override this to read a column with less per-block overhead than repeated
+     * {@link #getBlockState(int, int, int)} calls.
+     *
+     * @param x      X coordinate
+     * @param z      Z coordinate
+     * @param minY   Y coordinate of the lowest block to read
+     * @param states Array to fill, {@code states[i]} receives the {@link BlockState} at {@code minY + i}.
+     */
+    default void getBlockStates(int x, int z, int minY, BlockState[] states) {
+        for(int i = 0; i < states.length; i++) {
+            states[i] = getBlockState(x, minY + i, z);
+        }
+    }
+
     BlockEntity getBlockEntity(int x, int y, int z);
 
     default BlockEntity getBlockEntity(Vector3 position) {
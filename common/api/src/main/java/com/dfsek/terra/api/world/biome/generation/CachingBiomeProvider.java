@@ -7,6 +7,8 @@ import com.github.benmanes.caffeine.cache.Scheduler;
 import java.util.Optional;
 
 import com.dfsek.terra.api.Handle;
+import com.dfsek.terra.api.util.Column;
+import com.dfsek.terra.api.util.cache.CacheUtils;
 import com.dfsek.terra.api.util.cache.SeededVector2Key;
 import com.dfsek.terra.api.util.cache.SeededVector3Key;
 import com.dfsek.terra.api.util.generic.pair.Pair;
@@ -32,8 +34,8 @@ public class CachingBiomeProvider implements BiomeProvider, Handle {
         this.res = delegate.resolution();
 
         this.baseCache = ThreadLocal.withInitial(() -> {
-            LoadingCache<SeededVector2Key, Optional<Biome>> cache = Caffeine
-                .newBuilder()
+            LoadingCache<SeededVector2Key, Optional<Biome>> cache = CacheUtils
+                .recordStats(Caffeine.newBuilder(), "base_biome")
                 .executor(CACHE_EXECUTOR)
                 .scheduler(Scheduler.systemScheduler())
                 .initialCapacity(256)
@@ -43,8 +45,8 @@ public class CachingBiomeProvider implements BiomeProvider, Handle {
         });
 
         this.cache = ThreadLocal.withInitial(() -> {
-            LoadingCache<SeededVector3Key, Biome> cache3D = Caffeine
-                .newBuilder()
+            LoadingCache<SeededVector3Key, Biome> cache3D = CacheUtils
+                .recordStats(Caffeine.newBuilder(), "biome")
                 .executor(CACHE_EXECUTOR)
                 .scheduler(Scheduler.systemScheduler())
                 .initialCapacity(981504)
@@ -87,6 +89,19 @@ public class CachingBiomeProvider implements BiomeProvider, Handle {
         return cachePair.getRight().get(mutableKey);
     }
 
+    /**
+     * Get the delegate's own column, so that providers which resolve a whole column at once, e.g. with a single lookup for
+     * biomes that don't vary with y, aren't reduced to a cache lookup per y. Sampling is only equivalent to
+     * {@link #getBiome(int, int, int, long)} at a resolution of 1, otherwise each y is still sampled through the cache.
+     */
+    @Override
+    public Column<Biome> getColumn(int x, int z, long seed, int min, int max) {
+        if(res == 1) {
+            return delegate.getColumn(x, z, seed, min, max);
+        }
+        return BiomeProvider.super.getColumn(x, z, seed, min, max);
+    }
+
     @Override
     public Iterable<Biome> getBiomes() {
         return delegate.getBiomes();
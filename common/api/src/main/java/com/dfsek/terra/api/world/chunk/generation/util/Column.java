@@ -52,6 +52,21 @@ public class Column<T extends WritableWorld> {
         return world.getBlockState(x, y, z);
     }
 
+    /**
+     * Get the {@link BlockState}s of a vertical range of this column, with less per-block overhead than repeated
+     * {@link #getBlock(int)} calls where the world supports it.
+     *
+     * @param minY Y coordinate of the lowest block to read (inclusive)
+     * @param maxY Y coordinate of the highest block to read (exclusive)
+     *
+     * @return The {@link BlockState}s, {@code [i]} holding the {@link BlockState} at {@code minY + i}.
+     */
+    public BlockState[] getBlocks(int minY, int maxY) {
+        BlockState[] states = new BlockState[maxY - minY];
+        world.getBlockStates(x, z, minY, states);
+        return states;
+    }
+
     public T getWorld() {
         return world;
     }
@@ -0,0 +1,54 @@
+package profiler;
+
+import org.junit.jupiter.api.Test;
+
+import com.dfsek.terra.api.profiler.Timings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class TimingsTest {
+    @Test
+    public void testBucketBounds() {
+        for(long time : new long[]{ 0, 1, 15, 16, 17, 31, 32, 33, 1000, 123456789, Long.MAX_VALUE }) {
+            int bucket = Timings.bucket(time);
+            assertTrue(bucket >= 0 && bucket < Timings.BUCKETS);
+            assertTrue(Timings.bucketLowerBound(bucket) <= time);
+            if(bucket + 1 < Timings.BUCKETS) assertTrue(Timings.bucketLowerBound(bucket + 1) > time);
+        }
+    }
+
+    @Test
+    public void testStatistics() {
+        Timings timings = new Timings();
+        for(long time = 1; time <= 1000; time++) {
+            timings.addTime(time * 1000);
+        }
+        assertEquals(1000, timings.count());
+        assertEquals(1000, timings.min());
+        assertEquals(1000000, timings.max());
+        assertEquals(500500, timings.average(), 0.0001);
+
+        long p50 = timings.percentile(50);
+        assertTrue(p50 <= 500000 && p50 > 500000 * 15 / 16, "p50 was " + p50);
+        assertEquals(1000000, timings.percentile(100), 1000000 / 16d);
+    }
+
+    @Test
+    public void testMerge() {
+        Timings a = new Timings();
+        Timings b = new Timings();
+        long[] buckets = new long[Timings.BUCKETS];
+        for(long time = 1; time <= 100; time++) {
+            a.addTime(time);
+            buckets[Timings.bucket(time + 100)]++;
+        }
+        b.addTimes(100, 15050, 101, 200, buckets);
+        a.addTimes(100, 15050, 101, 200, buckets);
+
+        assertEquals(200, a.count());
+        assertEquals(1, a.min());
+        assertEquals(200, a.max());
+        assertEquals(101, b.min());
+    }
+}
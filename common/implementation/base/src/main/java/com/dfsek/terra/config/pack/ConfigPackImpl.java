@@ -63,6 +63,7 @@ import com.dfsek.terra.api.event.events.config.ConfigurationLoadEvent;
 import com.dfsek.terra.api.event.events.config.pack.ConfigPackPostLoadEvent;
 import com.dfsek.terra.api.event.events.config.pack.ConfigPackPreLoadEvent;
 import com.dfsek.terra.api.event.events.config.type.ConfigTypePostLoadEvent;
+import com.dfsek.terra.api.profiler.jfr.PackLoadEvent;
 import com.dfsek.terra.api.properties.Context;
 import com.dfsek.terra.api.registry.CheckedRegistry;
 import com.dfsek.terra.api.registry.OpenRegistry;
@@ -119,6 +120,8 @@ public class ConfigPackImpl implements ConfigPack {
     @SuppressWarnings({ "rawtypes" })
     public ConfigPackImpl(Path path, Platform platform) throws IOException {
         long start = System.nanoTime();
+        PackLoadEvent loadEvent = new PackLoadEvent();
+        loadEvent.begin();
 
         if(Files.notExists(path)) throw new FileNotFoundException("Could not load config pack, " + path + " does not exist");
 
@@ -216,6 +219,11 @@ public class ConfigPackImpl implements ConfigPack {
         platform.getEventManager().callEvent(new ConfigPackPostLoadEvent(this, template -> selfLoader.load(template, packManifest)));
         logger.info("Loaded config pack \"{}:{}\" v{} by {} in {}ms.",
             namespace, id, getVersion().getFormatted(), template.getAuthor(), (System.nanoTime() - start) / 1000000.0D);
+        if(loadEvent.shouldCommit()) {
+            loadEvent.pack = key.toString();
+            loadEvent.path = path.toString();
+            loadEvent.commit();
+        }
 
 
         ConfigPackPostTemplate packPostTemplate = new ConfigPackPostTemplate();
@@ -17,25 +17,55 @@
 
 package com.dfsek.terra.profiler;
 
-public class Frame {
-    private final String id;
-    private final long start;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-    public Frame(String id) {
+
+/**
+ * An interned position in the profiler's call tree, identified by its name and parent frame.
+ * <p>
+ * Frames are created once per distinct path and then looked up by name from their parent, so pushing a frame does not build the
+ * path string.
+ */
+public final class Frame {
+    private final int id;
+    private final String name;
+    private final Frame parent;
+    private final Map<String, Frame> children = new ConcurrentHashMap<>();
+
+    Frame(int id, String name, Frame parent) {
         this.id = id;
-        this.start = System.nanoTime();
+        this.name = name;
+        this.parent = parent;
     }
 
-    @Override
-    public String toString() {
-        return id;
+    /**
+     * Get the child of this frame with the given name.
+     *
+     * @return The child frame, or null if it has not been interned yet.
+     */
+    Frame getChild(String name) {
+        return children.get(name);
+    }
+
+    Map<String, Frame> getChildren() {
+        return children;
     }
 
-    public String getId() {
+    public int getId() {
         return id;
     }
 
-    public long getStart() {
-        return start;
+    public String getName() {
+        return name;
+    }
+
+    public Frame getParent() {
+        return parent;
+    }
+
+    @Override
+    public String toString() {
+        return parent == null || parent.parent == null ? name : parent + "." + name;
     }
 }
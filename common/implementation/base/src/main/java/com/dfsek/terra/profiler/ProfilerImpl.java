@@ -20,28 +20,48 @@ package com.dfsek.terra.profiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import com.dfsek.terra.api.profiler.Profiler;
 import com.dfsek.terra.api.profiler.Timings;
-import com.dfsek.terra.api.util.mutable.MutableInteger;
 import com.dfsek.terra.profiler.exception.MalformedStackException;
 
 
 public class ProfilerImpl implements Profiler {
     private static final Logger logger = LoggerFactory.getLogger(ProfilerImpl.class);
 
-    private static final ThreadLocal<Stack<Frame>> THREAD_STACK = ThreadLocal.withInitial(Stack::new);
-    private static final ThreadLocal<Map<String, List<Long>>> TIMINGS = ThreadLocal.withInitial(HashMap::new);
-    private static final ThreadLocal<Boolean> SAFE = ThreadLocal.withInitial(() -> false);
-    private static final ThreadLocal<MutableInteger> STACK_SIZE = ThreadLocal.withInitial(() -> new MutableInteger(0));
+    private static final int INITIAL_STACK_DEPTH = 32;
+
     private static boolean instantiated = false;
-    private final List<Map<String, List<Long>>> accessibleThreadMaps = new ArrayList<>();
+
+    /**
+     * Root of the frame tree. Frames pushed onto an empty stack are its children, it is never recorded itself.
+     */
+    private final Frame root = new Frame(-1, "", null);
+    /**
+     * Every interned frame, indexed by frame ID.
+     */
+    private final List<Frame> frames = new ArrayList<>();
+    private final List<ThreadRecorder> recorders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ThreadRecorder> recorder = ThreadLocal.withInitial(() -> {
+        ThreadRecorder threadRecorder = new ThreadRecorder();
+        recorders.add(threadRecorder);
+        return threadRecorder;
+    });
     private volatile boolean running = false;
+    /**
+     * Incremented by {@link #reset()}. Each thread discards its own histograms when it next records after a reset, since only
+     * the owning thread may write to them.
+     */
+    private volatile int generation = 0;
 
     public ProfilerImpl() {
         if(instantiated)
@@ -52,40 +72,45 @@ public class ProfilerImpl implements Profiler {
     @Override
     public void push(String frame) {
         if(running) {
-            STACK_SIZE.get().increment();
-            if(SAFE.get()) {
-                Stack<Frame> stack = THREAD_STACK.get();
-                stack.push(new Frame(stack.isEmpty() ? frame : stack.peek().getId() + "." + frame));
-            } else SAFE.set(false);
+            ThreadRecorder recorder = this.recorder.get();
+            recorder.size++;
+            if(recorder.safe) {
+                Frame parent = recorder.depth == 0 ? root : recorder.stack[recorder.depth - 1];
+                Frame child = parent.getChild(frame);
+                if(child == null) child = intern(parent, frame);
+                recorder.push(child, System.nanoTime());
+            }
         }
     }
 
     @Override
     public void pop(String frame) {
         if(running) {
-            MutableInteger size = STACK_SIZE.get();
-            size.decrement();
-            if(SAFE.get()) {
+            ThreadRecorder recorder = this.recorder.get();
+            recorder.size--;
+            if(recorder.safe) {
                 long time = System.nanoTime();
-                Stack<Frame> stack = THREAD_STACK.get();
+                if(recorder.depth == 0)
+                    throw new MalformedStackException("Expected " + frame + ", found empty stack");
 
-                Map<String, List<Long>> timingsMap = TIMINGS.get();
-
-                if(timingsMap.isEmpty()) {
-                    synchronized(accessibleThreadMaps) {
-                        accessibleThreadMaps.add(timingsMap);
-                    }
-                }
-
-                Frame top = stack.pop();
-                if(!stack.isEmpty() ? !top.getId().endsWith("." + frame) : !top.getId().equals(frame))
+                int depth = --recorder.depth;
+                Frame top = recorder.stack[depth];
+                if(!top.getName().equals(frame))
                     throw new MalformedStackException("Expected " + frame + ", found " + top);
 
-                List<Long> timings = timingsMap.computeIfAbsent(top.getId(), id -> new ArrayList<>());
-
-                timings.add(time - top.getStart());
+                recorder.record(top.getId(), time - recorder.starts[depth], generation);
             }
-            if(size.get() == 0) SAFE.set(true);
+            if(recorder.size == 0) recorder.safe = true;
+        }
+    }
+
+    private Frame intern(Frame parent, String name) {
+        synchronized(frames) {
+            return parent.getChildren().computeIfAbsent(name, n -> {
+                Frame frame = new Frame(frames.size(), n, parent);
+                frames.add(frame);
+                return frame;
+            });
         }
     }
 
@@ -99,28 +124,130 @@ public class ProfilerImpl implements Profiler {
     public void stop() {
         logger.info("Stopping Terra profiler");
         running = false;
-        SAFE.set(false);
+        recorder.get().safe = false;
     }
 
     @Override
-    public void reset() {
+    public synchronized void reset() {
         logger.info("Resetting Terra profiler");
-        accessibleThreadMaps.forEach(Map::clear);
+        generation++;
     }
 
     @Override
     public Map<String, Timings> getTimings() {
         Map<String, Timings> map = new HashMap<>();
-        synchronized(accessibleThreadMaps) {
-            accessibleThreadMaps.forEach(smap -> smap.forEach((key, list) -> {
-                String[] keys = key.split("\\.");
-                Timings timings = map.computeIfAbsent(keys[0], id -> new Timings());
-                for(int i = 1; i < keys.length; i++) {
-                    timings = timings.getSubItem(keys[i]);
+        long[] buckets = new long[Timings.BUCKETS];
+        int generation = this.generation;
+        for(ThreadRecorder threadRecorder : recorders) {
+            if(threadRecorder.generation != generation) continue; // Not recorded since the last reset.
+            Histogram[] histograms = threadRecorder.histograms;
+            for(int id = 0; id < histograms.length; id++) {
+                Histogram histogram = histograms[id];
+                if(histogram == null) continue;
+
+                Frame frame;
+                synchronized(frames) {
+                    frame = frames.get(id);
+                }
+                Deque<String> path = new ArrayDeque<>();
+                for(Frame current = frame; current != root; current = current.getParent()) {
+                    path.push(current.getName());
+                }
+
+                Timings timings = map.computeIfAbsent(path.pop(), name -> new Timings());
+                while(!path.isEmpty()) {
+                    timings = timings.getSubItem(path.pop());
                 }
-                new ArrayList<>(list).forEach(timings::addTime);
-            }));
+                histogram.mergeInto(timings, buckets);
+            }
         }
         return map;
     }
+
+    /**
+     * Per-thread profiler state. Only the owning thread writes to it, other threads only read histograms when reporting.
+     */
+    private static final class ThreadRecorder {
+        private Frame[] stack = new Frame[INITIAL_STACK_DEPTH];
+        private long[] starts = new long[INITIAL_STACK_DEPTH];
+        private int depth = 0;
+        /**
+         * Number of frames pushed while running, including frames pushed before the stack was safe to record.
+         */
+        private int size = 0;
+        /**
+         * Whether the stack only contains frames pushed while running, and so can be recorded.
+         */
+        private boolean safe = false;
+        /**
+         * Histograms indexed by frame ID.
+         */
+        private volatile Histogram[] histograms = new Histogram[0];
+        /**
+         * Generation of the profiler the histograms were recorded in.
+         */
+        private volatile int generation = 0;
+
+        private void push(Frame frame, long start) {
+            if(depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+                starts = Arrays.copyOf(starts, depth * 2);
+            }
+            stack[depth] = frame;
+            starts[depth] = start;
+            depth++;
+        }
+
+        private void record(int id, long time, int generation) {
+            if(generation != this.generation) {
+                this.histograms = new Histogram[0];
+                this.generation = generation;
+            }
+            Histogram[] histograms = this.histograms;
+            if(id >= histograms.length || histograms[id] == null) {
+                histograms = Arrays.copyOf(histograms, Math.max(id + 1, histograms.length));
+                histograms[id] = new Histogram();
+                this.histograms = histograms;
+            }
+            histograms[id].record(time);
+        }
+    }
+
+
+    /**
+     * Log-bucketed histogram of frame times, laid out as {@code [count, sum, min, max, buckets...]}.
+     * <p>
+     * Written only by its owning thread with release stores, so it can be merged by a reporting thread without locking.
+     */
+    private static final class Histogram {
+        private static final int COUNT = 0;
+        private static final int SUM = 1;
+        private static final int MIN = 2;
+        private static final int MAX = 3;
+        private static final int BUCKETS = 4;
+
+        private final AtomicLongArray data = new AtomicLongArray(BUCKETS + Timings.BUCKETS);
+
+        private Histogram() {
+            data.set(MIN, Long.MAX_VALUE);
+            data.set(MAX, Long.MIN_VALUE);
+        }
+
+        private void record(long time) {
+            int bucket = BUCKETS + Timings.bucket(time);
+            data.setRelease(bucket, data.getPlain(bucket) + 1);
+            data.setRelease(SUM, data.getPlain(SUM) + time);
+            if(time < data.getPlain(MIN)) data.setRelease(MIN, time);
+            if(time > data.getPlain(MAX)) data.setRelease(MAX, time);
+            data.setRelease(COUNT, data.getPlain(COUNT) + 1);
+        }
+
+        private void mergeInto(Timings timings, long[] buckets) {
+            long count = data.getAcquire(COUNT);
+            for(int i = 0; i < buckets.length; i++) {
+                buckets[i] = data.getAcquire(BUCKETS + i);
+            }
+            timings.addTimes(count, data.getAcquire(SUM), data.getAcquire(MIN), data.getAcquire(MAX), buckets);
+        }
+    }
 }
@@ -19,12 +19,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.TreeMap;
 
+import com.dfsek.terra.allay.delegate.AllayBlockState;
 
 /**
  * @author daoge_cmd
@@ -38,6 +40,12 @@ public final class Mapping {
     private static final Map<String, Map<String, String>> JE_BLOCK_DEFAULT_PROPERTIES = new HashMap<>();
     private static final Map<BlockState, JeBlockState> BE_BLOCK_STATE_TO_JE = new HashMap<>();
     private static final Map<Integer, BlockState> JE_BLOCK_STATE_HASH_TO_BE = new HashMap<>();
+    /**
+     * Terra wrappers for every mapped block state, built once so reads and pack loading share instances. Allay block states are
+     * singletons, so the Bedrock side is keyed by identity.
+     */
+    private static final Map<BlockState, AllayBlockState> BE_BLOCK_STATE_TO_TERRA = new IdentityHashMap<>();
+    private static final Map<Integer, AllayBlockState> JE_BLOCK_STATE_HASH_TO_TERRA = new HashMap<>();
     private static final Map<String, ItemType<?>> JE_ITEM_ID_TO_BE = new HashMap<>();
     private static final Map<String, Integer> JE_BIOME_ID_TO_BE = new HashMap<>();
 
@@ -48,6 +56,7 @@ public final class Mapping {
         if(!initJeBlockDefaultProperties()) error();
         if(!initItemMapping()) error();
         if(!initBiomeMapping()) error();
+        initTerraBlockStates();
     }
 
     public static JeBlockState blockStateBeToJe(BlockState beBlockState) {
@@ -63,6 +72,28 @@ public final class Mapping {
         return result;
     }
 
+    /**
+     * Get the Terra wrapper of a Bedrock block state, without allocating for mapped states.
+     */
+    public static AllayBlockState blockStateBeToTerra(BlockState beBlockState) {
+        AllayBlockState result = BE_BLOCK_STATE_TO_TERRA.get(beBlockState);
+        if(result == null) {
+            return new AllayBlockState(beBlockState, blockStateBeToJe(beBlockState));
+        }
+        return result;
+    }
+
+    /**
+     * Get the shared Terra wrapper of a Java block state, resolving its Bedrock counterpart.
+     */
+    public static AllayBlockState blockStateJeToTerra(JeBlockState jeBlockState) {
+        AllayBlockState result = JE_BLOCK_STATE_HASH_TO_TERRA.get(jeBlockState.getHash());
+        if(result == null) {
+            return new AllayBlockState(blockStateJeToBe(jeBlockState), jeBlockState);
+        }
+        return result;
+    }
+
     public static ItemType<?> itemIdJeToBe(String jeItemId) {
         return JE_ITEM_ID_TO_BE.get(jeItemId);
     }
@@ -167,6 +198,17 @@ public final class Mapping {
         return true;
     }
 
+    // Done last, as wrappers resolve default properties when created.
+    private static void initTerraBlockStates() {
+        BE_BLOCK_STATE_TO_JE.forEach((beState, jeState) -> {
+            AllayBlockState terraState = new AllayBlockState(beState, jeState);
+            BE_BLOCK_STATE_TO_TERRA.put(beState, terraState);
+            if(JE_BLOCK_STATE_HASH_TO_BE.get(jeState.getHash()) == beState) {
+                JE_BLOCK_STATE_HASH_TO_TERRA.put(jeState.getHash(), terraState);
+            }
+        });
+    }
+
     @SuppressWarnings("unchecked")
     private static boolean initJeBlockDefaultProperties() {
         try(InputStream stream = Mapping.class.getClassLoader().getResourceAsStream("je_blocks.json")) {
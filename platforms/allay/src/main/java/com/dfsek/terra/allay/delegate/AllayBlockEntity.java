@@ -40,8 +40,7 @@ public record AllayBlockEntity(BlockEntity allayBlockEntity) implements com.dfse
 
     @Override
     public BlockState getBlockState() {
-        var allayBlockState = this.allayBlockEntity.getBlockState();
-        return new AllayBlockState(allayBlockState, Mapping.blockStateBeToJe(this.allayBlockEntity.getBlockState()));
+        return Mapping.blockStateBeToTerra(this.allayBlockEntity.getBlockState());
     }
 
     @Override
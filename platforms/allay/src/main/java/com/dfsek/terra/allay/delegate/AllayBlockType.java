@@ -13,7 +13,7 @@ import com.dfsek.terra.api.block.state.BlockState;
 public record AllayBlockType(BlockType<?> allayBlockType) implements com.dfsek.terra.api.block.BlockType {
     @Override
     public BlockState getDefaultState() {
-        return new AllayBlockState(allayBlockType.getDefaultState(), Mapping.blockStateBeToJe(allayBlockType.getDefaultState()));
+        return Mapping.blockStateBeToTerra(allayBlockType.getDefaultState());
     }
 
     @Override
@@ -38,7 +38,7 @@ public record AllayChunk(ServerWorld world, Chunk allayChunk) implements com.dfs
     @Override
     public @NotNull BlockState getBlock(int x, int y, int z) {
         org.allaymc.api.block.type.BlockState blockState = allayChunk.getBlockState(x, y, z);
-        return new AllayBlockState(blockState, Mapping.blockStateBeToJe(blockState));
+        return Mapping.blockStateBeToTerra(blockState);
     }
 
     @Override
@@ -43,7 +43,7 @@ public record AllayProtoChunk(UnsafeChunk allayChunk) implements ProtoChunk {
     @Override
     public @NotNull BlockState getBlock(int x, int y, int z) {
         org.allaymc.api.block.type.BlockState blockState = allayChunk.getBlockState(x, y, z);
-        return new AllayBlockState(blockState, Mapping.blockStateBeToJe(blockState));
+        return Mapping.blockStateBeToTerra(blockState);
     }
 
     @Override
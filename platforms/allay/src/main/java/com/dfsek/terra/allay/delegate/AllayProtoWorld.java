@@ -75,7 +75,7 @@ public record AllayProtoWorld(AllayServerWorld allayServerWorld, OtherChunkAcces
     @Override
     public BlockState getBlockState(int x, int y, int z) {
         org.allaymc.api.block.type.BlockState blockState = context.getBlockState(x, y, z);
-        return new AllayBlockState(blockState, Mapping.blockStateBeToJe(blockState));
+        return Mapping.blockStateBeToTerra(blockState);
     }
 
     @Override
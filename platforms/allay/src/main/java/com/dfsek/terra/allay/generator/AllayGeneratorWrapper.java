@@ -150,14 +150,21 @@ public class AllayGeneratorWrapper implements GeneratorWrapper {
             );
             int minHeight = context.getDimensionInfo().minHeight();
             int maxHeight = context.getDimensionInfo().maxHeight();
+            // Bedrock stores biomes per block, so every block column is resolved. Providers whose biomes don't vary with y
+            // return a column backed by a single lookup, which is written as one run.
             for(int x = 0; x < 16; x++) {
-                for(int y = minHeight; y < maxHeight; y++) {
-                    for(int z = 0; z < 16; z++) {
-                        chunk.setBiome(
-                            x, y, z,
-                            (BiomeType) biomeProvider.getBiome(chunkX * 16 + x, y, chunkZ * 16 + z, seed).getPlatformBiome().getHandle()
-                        );
-                    }
+                for(int z = 0; z < 16; z++) {
+                    int columnX = x;
+                    int columnZ = z;
+                    biomeProvider
+                        .getColumn(chunkX * 16 + x, chunkZ * 16 + z, seed, minHeight, maxHeight)
+                        .forRanges(1, (min, max, biome) -> {
+                            // Allay's chunk API only writes biomes per block, each run is resolved once and then written.
+                            BiomeType biomeType = (BiomeType) biome.getPlatformBiome().getHandle();
+                            for(int y = min; y < max; y++) {
+                                chunk.setBiome(columnX, y, columnZ, biomeType);
+                            }
+                        });
                 }
             }
             return true;
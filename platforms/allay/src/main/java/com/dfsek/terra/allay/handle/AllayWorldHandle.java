@@ -18,7 +18,7 @@ public class AllayWorldHandle implements WorldHandle {
     @Override
     public @NotNull BlockState createBlockState(@NotNull String data) {
         JeBlockState jeBlockState = JeBlockState.fromString(data);
-        return new AllayBlockState(Mapping.blockStateJeToBe(jeBlockState), jeBlockState);
+        return Mapping.blockStateJeToTerra(jeBlockState);
     }
 
     @Override
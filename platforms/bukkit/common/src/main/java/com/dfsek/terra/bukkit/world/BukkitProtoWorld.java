@@ -6,9 +6,7 @@ import org.bukkit.generator.LimitedRegion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Supplier;
 
 import com.dfsek.terra.api.block.entity.BlockEntity;
 import com.dfsek.terra.api.block.state.BlockState;
@@ -48,17 +46,16 @@ public class BukkitProtoWorld implements ProtoWorld {
 
     @Override
     public void setBlockState(int x, int y, int z, BlockState data, boolean physics) {
-        access(x, y, z, () -> {
-            BlockData bukkitData = BukkitAdapter.adapt(data);
-            delegate.setBlockData(x, y, z, bukkitData);
-            if(physics) {
-                if(BukkitUtils.isLiquid(bukkitData)) {
-                    delegate.scheduleFluidUpdate(x, y, z);
-                } else {
-                    delegate.scheduleBlockUpdate(x, y, z);
-                }
+        if(!inRegion(x, y, z)) return;
+        BlockData bukkitData = BukkitAdapter.adapt(data);
+        delegate.setBlockData(x, y, z, bukkitData);
+        if(physics) {
+            if(BukkitUtils.isLiquid(bukkitData)) {
+                delegate.scheduleFluidUpdate(x, y, z);
+            } else {
+                delegate.scheduleBlockUpdate(x, y, z);
             }
-        });
+        }
     }
 
     @Override
@@ -73,12 +70,26 @@ public class BukkitProtoWorld implements ProtoWorld {
 
     @Override
     public BlockState getBlockState(int x, int y, int z) {
-        return access(x, y, z, () -> BukkitBlockState.newInstance(delegate.getBlockData(x, y, z))).orElse(air);
+        if(!inRegion(x, y, z)) return air;
+        return BukkitBlockState.newInstance(delegate.getBlockData(x, y, z));
+    }
+
+    @Override
+    public void getBlockStates(int x, int z, int minY, BlockState[] states) {
+        if(states.length == 0) return;
+        if(!delegate.isInRegion(x, minY, z) || !delegate.isInRegion(x, minY + states.length - 1, z)) {
+            ProtoWorld.super.getBlockStates(x, z, minY, states); // Partially out of bounds, fall back to per-block checks.
+            return;
+        }
+        for(int i = 0; i < states.length; i++) {
+            states[i] = BukkitBlockState.newInstance(delegate.getBlockData(x, minY + i, z));
+        }
     }
 
     @Override
     public BlockEntity getBlockEntity(int x, int y, int z) {
-        return access(x, y, z, () -> BukkitBlockEntity.newInstance(delegate.getBlockState(x, y, z))).orElse(null);
+        if(!inRegion(x, y, z)) return null;
+        return BukkitBlockEntity.newInstance(delegate.getBlockState(x, y, z));
     }
 
     @Override
@@ -88,9 +99,9 @@ public class BukkitProtoWorld implements ProtoWorld {
 
     @Override
     public Entity spawnEntity(double x, double y, double z, EntityType entityType) {
-        return access((int) x, (int) y, (int) z, () -> new BukkitEntity(
-            delegate.spawnEntity(new Location(delegate.getWorld(), x, y, z), ((BukkitEntityType) entityType).getHandle()))).orElse(
-            null);
+        if(!inRegion((int) x, (int) y, (int) z)) return null;
+        return new BukkitEntity(
+            delegate.spawnEntity(new Location(delegate.getWorld(), x, y, z), ((BukkitEntityType) entityType).getHandle()));
     }
 
     @Override
@@ -123,22 +134,9 @@ public class BukkitProtoWorld implements ProtoWorld {
         return new BukkitServerWorld(delegate.getWorld());
     }
 
-    private <T> Optional<T> access(int x, int y, int z, Supplier<T> action) {
-        if(delegate.isInRegion(x, y, z)) {
-            return Optional.of(action.get());
-        } else if(warn.getAndSet(false)) {
-            LOGGER.warn("Detected world access at coordinates out of bounds: ({}, {}, {}) accessed for region [{}, {}]", x, y, z,
-                delegate.getCenterChunkX(), delegate.getCenterChunkZ());
-        } else {
-            LOGGER.debug("Detected world access at coordinates out of bounds: ({}, {}, {}) accessed for region [{}, {}]", x, y, z,
-                delegate.getCenterChunkX(), delegate.getCenterChunkZ());
-        }
-        return Optional.empty();
-    }
-
-    private void access(int x, int y, int z, Runnable action) {
+    private boolean inRegion(int x, int y, int z) {
         if(delegate.isInRegion(x, y, z)) {
-            action.run();
+            return true;
         } else if(warn.getAndSet(false)) {
             LOGGER.warn("Detected world access at coordinates out of bounds: ({}, {}, {}) accessed for region [{}, {}]", x, y, z,
                 delegate.getCenterChunkX(), delegate.getCenterChunkZ());
@@ -146,5 +144,6 @@ public class BukkitProtoWorld implements ProtoWorld {
             LOGGER.debug("Detected world access at coordinates out of bounds: ({}, {}, {}) accessed for region [{}, {}]", x, y, z,
                 delegate.getCenterChunkX(), delegate.getCenterChunkZ());
         }
+        return false;
     }
 }
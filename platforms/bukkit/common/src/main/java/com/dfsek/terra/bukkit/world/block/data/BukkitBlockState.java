@@ -17,6 +17,9 @@
 
 package com.dfsek.terra.bukkit.world.block.data;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.dfsek.terra.api.block.BlockType;
 import com.dfsek.terra.api.block.state.BlockState;
 import com.dfsek.terra.api.block.state.properties.Property;
@@ -24,14 +27,27 @@ import com.dfsek.terra.bukkit.world.BukkitAdapter;
 
 
 public class BukkitBlockState implements BlockState {
+    /**
+     * Interned wrappers. Bukkit hands out a fresh {@link org.bukkit.block.data.BlockData} on every read, but they compare equal
+     * by their underlying server block state, of which there is a fixed number, so this stays bounded.
+     */
+    private static final Map<org.bukkit.block.data.BlockData, BlockState> INSTANCES = new ConcurrentHashMap<>();
+
     private final org.bukkit.block.data.BlockData delegate;
 
     protected BukkitBlockState(org.bukkit.block.data.BlockData delegate) {
         this.delegate = delegate;
     }
 
+    /**
+     * Get the wrapper of a block data. Wrappers are shared, so the data must not be modified after it is passed here.
+     */
     public static BlockState newInstance(org.bukkit.block.data.BlockData bukkitData) {
-        return new BukkitBlockState(bukkitData);
+        BlockState state = INSTANCES.get(bukkitData);
+        if(state != null) return state;
+        BlockState created = new BukkitBlockState(bukkitData);
+        state = INSTANCES.putIfAbsent(bukkitData, created);
+        return state == null ? created : state;
     }
 
 
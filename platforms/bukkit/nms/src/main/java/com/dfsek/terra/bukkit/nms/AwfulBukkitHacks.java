@@ -67,7 +67,7 @@ public class AwfulBukkitHacks {
                     Reflection.REFERENCE.invokeBindValue(holder, platform); // IMPORTANT: bind holder.
 
                     platformBiome.getContext().put(new BukkitBiomeInfo(delegateBukkitKey));
-                    platformBiome.getContext().put(new NMSBiomeInfo(delegateKey));
+                    platformBiome.getContext().put(new NMSBiomeInfo(delegateKey, holder));
 
                     Map<ResourceKey<Biome>, ResourceKey<VillagerType>> villagerMap = Reflection.VILLAGER_TYPE.getByBiome();
 
@@ -2,7 +2,6 @@ package com.dfsek.terra.bukkit.nms;
 
 import com.mojang.serialization.MapCodec;
 import net.minecraft.core.Holder;
-import net.minecraft.core.Registry;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.BiomeSource;
 import net.minecraft.world.level.biome.Climate.Sampler;
@@ -10,28 +9,33 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.stream.Stream;
 
+import com.dfsek.terra.api.util.cache.NoiseBiomeCache;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.bukkit.world.BukkitPlatformBiome;
 
 
 public class NMSBiomeProvider extends BiomeSource {
+    private static final int CACHE_SECTIONS = 4096;
+
     private final BiomeProvider delegate;
-    private final long seed;
-    private final Registry<Biome> biomeRegistry = RegistryFetcher.biomeRegistry();
+    private final NoiseBiomeCache<Holder<Biome>> cache;
 
     public NMSBiomeProvider(BiomeProvider delegate, long seed) {
         super();
         this.delegate = delegate;
-        this.seed = seed;
+        this.cache = new NoiseBiomeCache<>(CACHE_SECTIONS, (x, y, z) -> holder(delegate.getBiome(x << 2, y << 2, z << 2, seed)));
+    }
+
+    private static Holder<Biome> holder(com.dfsek.terra.api.world.biome.Biome biome) {
+        return ((BukkitPlatformBiome) biome.getPlatformBiome()).getContext()
+            .get(NMSBiomeInfo.class)
+            .holder();
     }
 
     @Override
     protected Stream<Holder<Biome>> collectPossibleBiomes() {
         return delegate.stream()
-            .map(biome -> RegistryFetcher.biomeRegistry()
-                .getOrThrow(((BukkitPlatformBiome) biome.getPlatformBiome()).getContext()
-                    .get(NMSBiomeInfo.class)
-                    .biomeKey()));
+            .map(NMSBiomeProvider::holder);
     }
 
     @Override
@@ -45,9 +49,6 @@ public class NMSBiomeProvider extends BiomeSource {
 
     @Override
     public @NotNull Holder<Biome> getNoiseBiome(int x, int y, int z, @NotNull Sampler sampler) {
-        return biomeRegistry.getOrThrow(((BukkitPlatformBiome) delegate.getBiome(x << 2, y << 2, z << 2, seed)
-            .getPlatformBiome()).getContext()
-            .get(NMSBiomeInfo.class)
-            .biomeKey());
+        return cache.get(x, y, z);
     }
 }
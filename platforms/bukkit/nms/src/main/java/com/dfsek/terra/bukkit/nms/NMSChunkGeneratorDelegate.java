@@ -3,6 +3,8 @@ package com.dfsek.terra.bukkit.nms;
 import com.mojang.serialization.MapCodec;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.WorldGenRegion;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.LevelAccessor;
 import net.minecraft.world.level.LevelHeightAccessor;
 import net.minecraft.world.level.NoiseColumn;
@@ -18,6 +20,11 @@ import net.minecraft.world.level.levelgen.DensityFunction.SinglePointContext;
 import net.minecraft.world.level.levelgen.Heightmap.Types;
 import net.minecraft.world.level.levelgen.RandomState;
 import net.minecraft.world.level.levelgen.blending.Blender;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.PoolElementStructurePiece;
+import net.minecraft.world.level.levelgen.structure.StructurePiece;
+import net.minecraft.world.level.levelgen.structure.StructureStart;
+import net.minecraft.world.level.levelgen.structure.TerrainAdjustment;
 import org.bukkit.craftbukkit.block.data.CraftBlockData;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -36,6 +43,10 @@ import com.dfsek.terra.bukkit.world.block.data.BukkitBlockState;
 
 public class NMSChunkGeneratorDelegate extends ChunkGenerator {
     private static final Logger LOGGER = LoggerFactory.getLogger(NMSChunkGeneratorDelegate.class);
+    /**
+     * Distance from a structure piece beyond which its terrain adaptation has no weight.
+     */
+    private static final int BEARD_RADIUS = 12;
     private final com.dfsek.terra.api.world.chunk.generation.ChunkGenerator delegate;
 
     private final ChunkGenerator vanilla;
@@ -103,23 +114,72 @@ public class NMSChunkGeneratorDelegate extends ChunkGenerator {
 
     private void beard(StructureManager structureAccessor, ChunkAccess chunk, WorldProperties world, BiomeProvider biomeProvider,
                        PreLoadCompatibilityOptions compatibilityOptions) {
-        Beardifier structureWeightSampler = Beardifier.forStructuresInChunk(structureAccessor, chunk.getPos());
         double threshold = compatibilityOptions.getBeardThreshold();
         double airThreshold = compatibilityOptions.getAirThreshold();
-        int xi = chunk.getPos().x << 4;
-        int zi = chunk.getPos().z << 4;
-        for(int x = 0; x < 16; x++) {
-            for(int z = 0; z < 16; z++) {
+        ChunkPos chunkPos = chunk.getPos();
+        int xi = chunkPos.x << 4;
+        int zi = chunkPos.z << 4;
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+
+        // Blocks with no structure weight are left alone, unless the thresholds are set so that a weight of 0 changes them.
+        int minX = 0, maxX = 15, minZ = 0, maxZ = 15;
+        if(threshold >= 0 && airThreshold <= 0) {
+            int boundsMinX = Integer.MAX_VALUE, boundsMaxX = Integer.MIN_VALUE;
+            int boundsMinY = Integer.MAX_VALUE, boundsMaxY = Integer.MIN_VALUE;
+            int boundsMinZ = Integer.MAX_VALUE, boundsMaxZ = Integer.MIN_VALUE;
+            for(StructureStart start : structureAccessor.startsForStructure(chunkPos,
+                structure -> structure.terrainAdaptation() != TerrainAdjustment.NONE)) {
+                for(StructurePiece piece : start.getPieces()) {
+                    if(!piece.isCloseToChunk(chunkPos, BEARD_RADIUS)) continue;
+                    BoundingBox box = piece.getBoundingBox();
+                    int groundLevelDelta = piece instanceof PoolElementStructurePiece pool ? Math.abs(pool.getGroundLevelDelta()) : 0;
+                    boundsMinX = Math.min(boundsMinX, box.minX() - BEARD_RADIUS);
+                    boundsMaxX = Math.max(boundsMaxX, box.maxX() + BEARD_RADIUS);
+                    boundsMinY = Math.min(boundsMinY, box.minY() - BEARD_RADIUS - groundLevelDelta);
+                    boundsMaxY = Math.max(boundsMaxY, box.maxY() + BEARD_RADIUS + groundLevelDelta);
+                    boundsMinZ = Math.min(boundsMinZ, box.minZ() - BEARD_RADIUS);
+                    boundsMaxZ = Math.max(boundsMaxZ, box.maxZ() + BEARD_RADIUS);
+                }
+            }
+            if(boundsMinX > boundsMaxX) return; // No structure is close enough to this chunk to affect it.
+            minX = Math.max(minX, boundsMinX - xi);
+            maxX = Math.min(maxX, boundsMaxX - xi);
+            minZ = Math.max(minZ, boundsMinZ - zi);
+            maxZ = Math.min(maxZ, boundsMaxZ - zi);
+            minY = Math.max(minY, boundsMinY);
+            maxY = Math.min(maxY, boundsMaxY);
+            if(minX > maxX || minZ > maxZ || minY > maxY) return;
+        }
+
+        // Sample the weight at the corners of 4x4x4 cells and interpolate within them, like terrain noise.
+        Beardifier structureWeightSampler = Beardifier.forStructuresInChunk(structureAccessor, chunkPos);
+        int cellMinX = minX >> 2, cellMinZ = minZ >> 2, cellMinY = Math.floorDiv(minY, 4);
+        int sizeX = (maxX >> 2) - cellMinX + 2, sizeZ = (maxZ >> 2) - cellMinZ + 2, sizeY = Math.floorDiv(maxY, 4) - cellMinY + 2;
+        double[] weights = new double[sizeX * sizeY * sizeZ];
+        for(int cx = 0; cx < sizeX; cx++) {
+            for(int cz = 0; cz < sizeZ; cz++) {
+                for(int cy = 0; cy < sizeY; cy++) {
+                    weights[(cx * sizeZ + cz) * sizeY + cy] = structureWeightSampler.compute(
+                        new SinglePointContext(xi + ((cellMinX + cx) << 2), (cellMinY + cy) << 2, zi + ((cellMinZ + cz) << 2)));
+                }
+            }
+        }
+
+        BlockPos.MutableBlockPos blockPos = new BlockPos.MutableBlockPos();
+        for(int x = minX; x <= maxX; x++) {
+            for(int z = minZ; z <= maxZ; z++) {
                 int depth = 0;
-                for(int y = world.getMaxHeight(); y >= world.getMinHeight(); y--) {
-                    double noise = structureWeightSampler.compute(new SinglePointContext(x + xi, y, z + zi));
+                for(int y = maxY; y >= minY; y--) {
+                    double noise = interpolateWeight(weights, sizeY, sizeZ, x - (cellMinX << 2), y - (cellMinY << 2),
+                        z - (cellMinZ << 2));
                     if(noise > threshold) {
-                        chunk.setBlockState(new BlockPos(x, y, z), ((CraftBlockData) ((BukkitBlockState) delegate
+                        chunk.setBlockState(blockPos.set(x, y, z), ((CraftBlockData) ((BukkitBlockState) delegate
                             .getPalette(x + xi, y, z + zi, world, biomeProvider)
                             .get(depth, x + xi, y, z + zi, world.getSeed())).getHandle()).getState(), 0);
                         depth++;
                     } else if(noise < airThreshold) {
-                        chunk.setBlockState(new BlockPos(x, y, z), Blocks.AIR.defaultBlockState(), 0);
+                        chunk.setBlockState(blockPos.set(x, y, z), Blocks.AIR.defaultBlockState(), 0);
                     } else {
                         depth = 0;
                     }
@@ -128,6 +188,27 @@ public class NMSChunkGeneratorDelegate extends ChunkGenerator {
         }
     }
 
+    /**
+     * Trilinearly interpolate cell corner weights, sampled every 4 blocks.
+     *
+     * @param x Block x, relative to the first sampled corner
+     * @param y Block y, relative to the first sampled corner
+     * @param z Block z, relative to the first sampled corner
+     */
+    private static double interpolateWeight(double[] weights, int sizeY, int sizeZ, int x, int y, int z) {
+        int cx = x >> 2, cy = y >> 2, cz = z >> 2;
+        double tx = (x & 3) / 4d, ty = (y & 3) / 4d, tz = (z & 3) / 4d;
+        int i000 = (cx * sizeZ + cz) * sizeY + cy;
+        int i001 = i000 + sizeY;
+        int i100 = i000 + sizeZ * sizeY;
+        int i101 = i100 + sizeY;
+        double y00 = Mth.lerp(ty, weights[i000], weights[i000 + 1]);
+        double y01 = Mth.lerp(ty, weights[i001], weights[i001 + 1]);
+        double y10 = Mth.lerp(ty, weights[i100], weights[i100 + 1]);
+        double y11 = Mth.lerp(ty, weights[i101], weights[i101 + 1]);
+        return Mth.lerp(tx, Mth.lerp(tz, y00, y01), Mth.lerp(tz, y10, y11));
+    }
+
     @Override
     public int getSeaLevel() {
         return vanilla.getSeaLevel();
@@ -1,18 +1,21 @@
 package com.dfsek.terra.cli;
 
-import com.dfsek.seismic.type.vector.Vector2Int;
-import net.querz.mca.MCAUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.Callable;
 
 import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.api.event.events.platform.PlatformInitializationEvent;
+import com.dfsek.terra.cli.benchmark.Benchmark;
 import com.dfsek.terra.cli.world.CLIWorld;
 
 
@@ -38,39 +41,58 @@ public final class TerraCLI implements Callable<Integer> {
     @Option(names = { "--no-save" }, description = "Don't save the world to disk.")
     private boolean noSave = false;
 
+    @Option(names = { "--regions-in-flight" }, description = "Maximum number of generated regions waiting to be written.")
+    private int regionsInFlight = 2;
+
+    @Option(names = { "--virtual-threads" }, description = "Write regions on virtual threads rather than a single writer thread.")
+    private boolean virtualThreads = false;
+
+    @Option(names = { "--benchmark" },
+            description = "Generate a fixed square of --size regions without saving, and write a timing report instead.")
+    private boolean benchmark = false;
+
+    @Option(names = { "--warmup" }, description = "Number of regions along each axis to generate before benchmarking.")
+    private int warmup = 1;
+
+    @Option(names = { "--benchmark-output" }, description = "File to write the benchmark report to.")
+    private File benchmarkOutput = new File("benchmark.json");
+
+    @Spec
+    private CommandSpec spec;
+
     public static void main(String... args) {
         int exitCode = new CommandLine(new TerraCLI()).execute(args);
         System.exit(exitCode);
     }
 
     @Override
-    public Integer call() {
+    public Integer call() throws IOException {
         Logger LOGGER = LoggerFactory.getLogger(TerraCLI.class);
         LOGGER.info("Starting Terra CLI...");
 
+        if(regionsInFlight < 1) {
+            throw new ParameterException(spec.commandLine(), "--regions-in-flight must be at least 1, was " + regionsInFlight);
+        }
+
+        if(benchmark && System.getProperty("terra.cache.stats") == null) {
+            System.setProperty("terra.cache.stats", "true"); // Before any cache is built.
+        }
+
         CLIPlatform platform = new CLIPlatform();
         platform.getEventManager().callEvent(new PlatformInitializationEvent());
 
         ConfigPack generate = platform.getConfigRegistry().getByID(pack).orElseThrow();
 
-        CLIWorld world = new CLIWorld(size, seed, maxHeight, minHeight, generate, noSave);
+        if(benchmark) {
+            new Benchmark(platform, generate, seed, maxHeight, minHeight).run(warmup, size, benchmarkOutput);
+            LOGGER.info("Done.");
+            return 0;
+        }
+
+        CLIWorld world = new CLIWorld(size, seed, maxHeight, minHeight, generate, noSave, regionsInFlight, virtualThreads);
 
         world.generate();
 
-        if(!noSave) {
-            world.serialize().parallel().forEach(mcaFile -> {
-                Vector2Int pos = mcaFile.getLeft();
-                String name = MCAUtil.createNameFromRegionLocation(pos.getX(), pos.getZ());
-                LOGGER.info("Writing region ({}, {}) to {}", pos.getX(), pos.getZ(), name);
-
-                try {
-                    MCAUtil.write(mcaFile.getRight(), name);
-                } catch(IOException e) {
-                    e.printStackTrace();
-                }
-                LOGGER.info("Wrote region to file.");
-            });
-        }
         LOGGER.info("Done.");
         return 0;
     }
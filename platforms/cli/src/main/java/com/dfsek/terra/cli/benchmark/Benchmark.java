@@ -0,0 +1,174 @@
+package com.dfsek.terra.cli.benchmark;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import com.dfsek.terra.api.Platform;
+import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.util.cache.CacheUtils;
+import com.dfsek.terra.api.world.chunk.generation.stage.GenerationStage;
+import com.dfsek.terra.cli.world.CLIWorld;
+
+
+/**
+ * Generates a fixed square of regions without saving them, and reports how long generation took and where the time went.
+ * <p>
+ * The warmup regions are generated with a different seed, so the JIT is warm but the measured world starts with cold caches,
+ * as a fresh world would.
+ */
+public class Benchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Benchmark.class);
+
+    private final Platform platform;
+    private final ConfigPack pack;
+    private final long seed;
+    private final int maxHeight;
+    private final int minHeight;
+
+    public Benchmark(Platform platform, ConfigPack pack, long seed, int maxHeight, int minHeight) {
+        this.platform = platform;
+        this.pack = pack;
+        this.seed = seed;
+        this.maxHeight = maxHeight;
+        this.minHeight = minHeight;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    /**
+     * @return Bytes allocated by all threads so far, or -1 if the JVM does not track allocations.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if(threads instanceof com.sun.management.ThreadMXBean sunThreads && sunThreads.isThreadAllocatedMemorySupported()) {
+            return sunThreads.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static String string(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * Format a number for JSON, which has no representation of infinity or NaN, e.g. a rate over a run too short to time.
+     */
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    private static void appendStage(StringBuilder json, String name, long time, long total, long chunks) {
+        json.append("    { \"name\": ").append(string(name))
+            .append(", \"seconds\": ").append(time / 1.0E9)
+            .append(", \"fraction\": ").append(total == 0 ? 0 : (double) time / total)
+            .append(", \"microseconds_per_chunk\": ").append(number(time / 1000.0 / chunks))
+            .append(" }");
+    }
+
+    /**
+     * Run the benchmark and write its report.
+     *
+     * @param warmupRegions Number of regions to generate along each axis before measuring.
+     * @param regions       Number of regions to measure along each axis.
+     * @param output        File to write the JSON report to.
+     */
+    public void run(int warmupRegions, int regions, File output) throws IOException {
+        if(warmupRegions > 0) {
+            LOGGER.info("Warming up with {}x{} regions...", warmupRegions, warmupRegions);
+            new CLIWorld(warmupRegions, seed + 1, maxHeight, minHeight, pack, true, 1, false).generate();
+        }
+
+        LOGGER.info("Benchmarking {}x{} regions...", regions, regions);
+        List<GenerationStage> stages = pack.getStages();
+        GenerationTimings timings = new GenerationTimings(stages.size());
+        CLIWorld world = new CLIWorld(regions, seed, maxHeight, minHeight, pack, true, 1, false);
+        world.setTimings(timings);
+
+        System.gc();
+        CacheUtils.resetStats();
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+
+        world.generate();
+
+        double seconds = (System.nanoTime() - start) / 1.0E9;
+        gcCount = gcCount() - gcCount;
+        gcTime = gcTime() - gcTime;
+        allocated = allocated < 0 ? -1 : allocatedBytes() - allocated;
+        Map<String, CacheStats> caches = CacheUtils.getStats();
+
+        long chunks = (long) regions * regions * 32 * 32;
+        // Terrain is also generated for the border of chunks around each region, which its features may write into.
+        long terrainChunks = timings.getTerrainChunks();
+        long stageTotal = timings.getNoise();
+        for(int i = 0; i < stages.size(); i++) {
+            stageTotal += timings.getStage(i);
+        }
+
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"terra_version\": ").append(string(platform.getVersion())).append(",\n");
+        json.append("  \"pack\": ").append(string(pack.getID())).append(",\n");
+        json.append("  \"pack_version\": ").append(string(pack.getVersion().getFormatted())).append(",\n");
+        json.append("  \"seed\": ").append(seed).append(",\n");
+        json.append("  \"min_height\": ").append(minHeight).append(",\n");
+        json.append("  \"max_height\": ").append(maxHeight).append(",\n");
+        json.append("  \"warmup_regions\": ").append(warmupRegions).append(",\n");
+        json.append("  \"regions\": ").append(regions).append(",\n");
+        json.append("  \"chunks\": ").append(chunks).append(",\n");
+        json.append("  \"terrain_chunks\": ").append(terrainChunks).append(",\n");
+        json.append("  \"processors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"seconds\": ").append(seconds).append(",\n");
+        json.append("  \"chunks_per_second\": ").append(number(chunks / seconds)).append(",\n");
+        json.append("  \"terrain_chunks_per_second\": ").append(number(terrainChunks / seconds)).append(",\n");
+
+        json.append("  \"stages\": [\n");
+        appendStage(json, "noise", timings.getNoise(), stageTotal, terrainChunks);
+        for(int i = 0; i < stages.size(); i++) {
+            json.append(",\n");
+            appendStage(json, i + ":" + stages.get(i).getClass().getSimpleName(), timings.getStage(i), stageTotal, chunks);
+        }
+        json.append("\n  ],\n");
+
+        json.append("  \"caches\": {");
+        boolean first = true;
+        for(Map.Entry<String, CacheStats> entry : caches.entrySet()) {
+            CacheStats stats = entry.getValue();
+            json.append(first ? "\n" : ",\n").append("    ").append(string(entry.getKey())).append(": { \"hits\": ")
+                .append(stats.hitCount()).append(", \"misses\": ").append(stats.missCount()).append(", \"hit_rate\": ")
+                .append(number(stats.hitRate())).append(", \"evictions\": ").append(stats.evictionCount()).append(" }");
+            first = false;
+        }
+        json.append(first ? "},\n" : "\n  },\n");
+
+        json.append("  \"allocated_bytes\": ").append(allocated).append(",\n");
+        json.append("  \"allocation_rate_bytes_per_second\": ").append(allocated < 0 ? "-1" : number(allocated / seconds)).append(",\n");
+        json.append("  \"gc_collections\": ").append(gcCount).append(",\n");
+        json.append("  \"gc_seconds\": ").append(gcTime / 1000.0).append('\n');
+        json.append("}\n");
+
+        Files.writeString(output.toPath(), json, StandardCharsets.UTF_8);
+
+        LOGGER.info("Populated {} chunks, generating terrain for {}, in {}s, {} chunks/s. Wrote report to {}", chunks, terrainChunks,
+            seconds, chunks / seconds, output);
+        if(!CacheUtils.RECORD_STATS) LOGGER.warn("Cache statistics were not recorded, set -Dterra.cache.stats=true to record them.");
+    }
+}
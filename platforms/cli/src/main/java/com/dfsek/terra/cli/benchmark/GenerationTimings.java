@@ -0,0 +1,58 @@
+package com.dfsek.terra.cli.benchmark;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Time spent in each step of generating chunks, summed over every generation thread.
+ */
+public class GenerationTimings {
+    private final LongAdder noise = new LongAdder();
+    private final LongAdder terrainChunks = new LongAdder();
+    private final LongAdder[] stages;
+
+    public GenerationTimings(int stageCount) {
+        this.stages = new LongAdder[stageCount];
+        for(int i = 0; i < stageCount; i++) {
+            stages[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record the time spent generating the terrain of one chunk.
+     */
+    public void recordNoise(long time) {
+        noise.add(time);
+        terrainChunks.increment();
+    }
+
+    public void recordStage(int stage, long time) {
+        stages[stage].add(time);
+    }
+
+    /**
+     * @return Time spent generating terrain, in nanoseconds.
+     */
+    public long getNoise() {
+        return noise.sum();
+    }
+
+    /**
+     * @return Number of chunks whose terrain was generated. This includes the border of chunks around the populated area, which
+     *     features may write into.
+     */
+    public long getTerrainChunks() {
+        return terrainChunks.sum();
+    }
+
+    /**
+     * @return Time spent populating a generation stage, in nanoseconds.
+     */
+    public long getStage(int stage) {
+        return stages[stage].sum();
+    }
+
+    public int getStageCount() {
+        return stages.length;
+    }
+}
@@ -81,4 +81,16 @@ public class CLIBlockState implements BlockState {
     public CompoundTag getNbt() {
         return nbt;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof CLIBlockState that)) return false;
+        return value.equals(that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
 }
@@ -1,41 +1,57 @@
 package com.dfsek.terra.cli.world;
 
-import com.dfsek.seismic.type.vector.Vector2Int;
 import com.dfsek.seismic.type.vector.Vector3;
-import com.google.common.collect.Streams;
-import net.querz.mca.MCAFile;
+import net.querz.mca.MCAUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Stream;
 
 import com.dfsek.terra.api.block.entity.BlockEntity;
 import com.dfsek.terra.api.block.state.BlockState;
 import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.api.entity.Entity;
 import com.dfsek.terra.api.entity.EntityType;
-import com.dfsek.terra.api.util.generic.pair.Pair;
 import com.dfsek.terra.api.world.ServerWorld;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.chunk.generation.ChunkGenerator;
 import com.dfsek.terra.api.world.chunk.generation.ProtoWorld;
-import com.dfsek.terra.cli.NBTSerializable;
+import com.dfsek.terra.api.world.chunk.generation.stage.GenerationStage;
+import com.dfsek.terra.cli.benchmark.GenerationTimings;
 import com.dfsek.terra.cli.world.chunk.CLIChunk;
 
 
-public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector2Int, MCAFile>>> {
+/**
+ * A world generated region by region. Only the regions still being generated, or still receiving features from neighbouring
+ * regions, are held in memory; each is written out as soon as it is complete.
+ */
+public class CLIWorld implements ServerWorld {
     private static final Logger LOGGER = LoggerFactory.getLogger(CLIWorld.class);
-    private final Region[] regions;
-    private final Region[] negativeRegions;
+    /**
+     * Width of the square tiles of chunks each terrain task generates, so neighbouring chunks share a worker's caches.
+     */
+    private static final int TILE_SIZE = 4;
+    private final Map<Long, Region> regions = new ConcurrentHashMap<>();
+    /**
+     * Keys of regions which have been dropped by {@link #releaseCompleteRegions()}, and must not be accessed again.
+     */
+    private final Set<Long> released = ConcurrentHashMap.newKeySet();
     private final int size;
     private final long seed;
     private final int maxHeight;
@@ -46,13 +62,31 @@ public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector
     private final boolean noSave;
     private final AtomicInteger amount = new AtomicInteger(0);
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() - 1);
-
+    /**
+     * Work-stealing pool generating tiles of terrain. Populating a chunk is forked from the worker whose terrain completed its
+     * neighbourhood, idle workers steal the rest.
+     */
+    private final ForkJoinPool executor = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    private final ExecutorService writer;
+    private final Semaphore regionsInFlight;
+    private volatile GenerationTimings timings;
+
+    /**
+     * @param size              Number of regions to generate along each axis.
+     * @param maxRegionsInFlight Maximum number of complete regions waiting to be written before generation blocks.
+     * @param virtualThreads     Whether to write regions on virtual threads, up to {@code maxRegionsInFlight} at once, rather
+     *                           than one at a time on a single writer thread.
+     *
+     * @throws IllegalArgumentException if {@code maxRegionsInFlight} is less than 1, since no region could ever be written.
+     */
     public CLIWorld(int size,
                     long seed,
                     int maxHeight,
                     int minHeight,
-                    ConfigPack pack, boolean noSave) {
+                    ConfigPack pack, boolean noSave, int maxRegionsInFlight, boolean virtualThreads) {
+        if(maxRegionsInFlight < 1) {
+            throw new IllegalArgumentException("Max regions in flight must be at least 1, was " + maxRegionsInFlight);
+        }
         this.size = size;
         this.maxHeight = maxHeight;
         this.minHeight = minHeight;
@@ -61,66 +95,165 @@ public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector
         this.biomeProvider = pack.getBiomeProvider();
         this.pack = pack;
         this.noSave = noSave;
+        this.regionsInFlight = new Semaphore(maxRegionsInFlight);
+        this.writer = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newSingleThreadExecutor();
+    }
+
+    private static long key(int x, int z) {
+        return (long) x << 32 | (z & 0xFFFFFFFFL);
+    }
+
+    public void generate() {
+        List<Double> CPSHistory = new ArrayList<>();
+        AtomicLong start = new AtomicLong(System.nanoTime());
+        for(int rz = 0; rz < size; rz++) {
+            for(int rx = 0; rx < size; rx++) {
+                int minX = rx * 32, minZ = rz * 32;
+                CountDownLatch populated = new CountDownLatch(32 * 32);
+                // Number of chunks in the 3x3 neighbourhood of each chunk of the region still without terrain.
+                AtomicIntegerArray pending = new AtomicIntegerArray(32 * 32);
+                for(int i = 0; i < 32 * 32; i++) {
+                    pending.set(i, 9);
+                }
+
+                // Terrain for the region, and the border of chunks its features may write into, a tile at a time.
+                for(int tileZ = minZ - 1; tileZ <= minZ + 32; tileZ += TILE_SIZE) {
+                    for(int tileX = minX - 1; tileX <= minX + 32; tileX += TILE_SIZE) {
+                        int finalTileX = tileX;
+                        int finalTileZ = tileZ;
+                        executor.execute(() -> {
+                            for(int cz = finalTileZ; cz < Math.min(finalTileZ + TILE_SIZE, minZ + 33); cz++) {
+                                for(int cx = finalTileX; cx < Math.min(finalTileX + TILE_SIZE, minX + 33); cx++) {
+                                    generateTerrain(cx, cz);
+                                    // Populate each neighbour as soon as its whole neighbourhood has terrain. The task is
+                                    // forked onto this worker's own queue, so it likely stays with the tile's warm caches.
+                                    for(int nz = Math.max(cz - 1, minZ); nz <= Math.min(cz + 1, minZ + 31); nz++) {
+                                        for(int nx = Math.max(cx - 1, minX); nx <= Math.min(cx + 1, minX + 31); nx++) {
+                                            if(pending.decrementAndGet((nx - minX) + (nz - minZ) * 32) != 0) continue;
+                                            int populateX = nx;
+                                            int populateZ = nz;
+                                            ForkJoinTask.adapt(() -> {
+                                                try {
+                                                    populate(populateX, populateZ);
+                                                    logProgress(populateX, populateZ, start, CPSHistory);
+                                                } finally {
+                                                    populated.countDown();
+                                                }
+                                            }).fork();
+                                        }
+                                    }
+                                }
+                            }
+                        });
+                    }
+                }
 
+                try {
+                    populated.await();
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
 
-        size += 1;
-        this.regions = new Region[size * size];
-        this.negativeRegions = new Region[size * size];
-        for(int x = 0; x < size; x++) {
-            for(int z = 0; z < size; z++) {
-                regions[x + z * size] = new Region(this, x, z);
-                negativeRegions[x + z * size] = new Region(this, x, z);
+                getRegion(rx, rz).setPopulated();
+                releaseCompleteRegions();
             }
         }
+
+        writer.shutdown();
+        try {
+            writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        regions.clear();
+
+        LOGGER.info("Average CPS: {}", CPSHistory.stream().mapToDouble(d -> d).average().orElse(0));
     }
 
-    public void generate() {
-        ArrayList<Double> CPSHistory = new ArrayList<>();
-        int sizeChunks = size * 32;
-        List<Future<?>> futures = new ArrayList<>();
-        final AtomicLong start = new AtomicLong(System.nanoTime());
-        for(int x = 0; x < sizeChunks; x++) {
-            for(int z = 0; z < sizeChunks; z++) {
-                int finalX = x;
-                int finalZ = z;
-                futures.add(executor.submit(() -> {
-                    try {
-                        int num = amount.getAndIncrement();
-                        CLIChunk chunk;
-                        if(!noSave) {
-                            chunk = getChunkAt(finalX, finalZ);
-                        } else {
-                            chunk = new CLIChunk(Math.floorMod(finalX, 32), Math.floorMod(finalZ, 32), this);
-                        }
-
-                        BiomeProvider cachingBiomeProvider = pack.getBiomeProvider();
-                        chunkGenerator.generateChunkData(chunk, this, cachingBiomeProvider, finalX, finalZ);
-                        CLIProtoWorld protoWorld = new CLIProtoWorld(this, cachingBiomeProvider, finalX, finalZ);
-                        pack.getStages().forEach(stage -> stage.populate(protoWorld));
-                        if(num % 240 == 239) {
-                            long time = System.nanoTime();
-                            double cps = num / ((double) (time - start.get()) / 1000000000);
-                            CPSHistory.add(cps);
-                            LOGGER.info("Generating chunk at ({}, {}), generated {} chunks at {}cps", finalX, finalZ, num, cps);
-                            amount.set(0);
-                            start.set(System.nanoTime());
-                        }
-                    } catch(Exception e) {
-                        e.printStackTrace();
-                    }
-                }));
+    private void logProgress(int x, int z, AtomicLong start, List<Double> CPSHistory) {
+        int num = amount.getAndIncrement();
+        if(num % 240 == 239) {
+            long time = System.nanoTime();
+            double cps = num / ((double) (time - start.get()) / 1000000000);
+            synchronized(CPSHistory) {
+                CPSHistory.add(cps);
+            }
+            LOGGER.info("Generating chunk at ({}, {}), generated {} chunks at {}cps", x, z, num, cps);
+            amount.set(0);
+            start.set(System.nanoTime());
+        }
+    }
+
+    private void generateTerrain(int x, int z) {
+        try {
+            Region region = getRegion(Math.floorDiv(x, 32), Math.floorDiv(z, 32));
+            int localX = Math.floorMod(x, 32), localZ = Math.floorMod(z, 32);
+            if(!region.markGenerated(localX, localZ)) return;
+            long start = System.nanoTime();
+            chunkGenerator.generateChunkData(region.get(localX, localZ), this, pack.getBiomeProvider(), x, z);
+            GenerationTimings timings = this.timings;
+            if(timings != null) timings.recordNoise(System.nanoTime() - start);
+        } catch(Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void populate(int x, int z) {
+        try {
+            CLIProtoWorld protoWorld = new CLIProtoWorld(this, pack.getBiomeProvider(), x, z);
+            List<GenerationStage> stages = pack.getStages();
+            GenerationTimings timings = this.timings;
+            for(int i = 0; i < stages.size(); i++) {
+                long start = System.nanoTime();
+                stages.get(i).populate(protoWorld);
+                if(timings != null) timings.recordStage(i, System.nanoTime() - start);
             }
+        } catch(Exception e) {
+            e.printStackTrace();
         }
+    }
+
+    /**
+     * Drop every region that can no longer change, writing those inside the generated area. A region can no longer change once
+     * it and all of its neighbours inside the generated area have been populated.
+     */
+    private void releaseCompleteRegions() {
+        regions.values().removeIf(region -> {
+            for(int x = region.getX() - 1; x <= region.getX() + 1; x++) {
+                for(int z = region.getZ() - 1; z <= region.getZ() + 1; z++) {
+                    if(x < 0 || z < 0 || x >= size || z >= size) continue;
+                    Region neighbour = regions.get(key(x, z));
+                    if(neighbour == null || !neighbour.isPopulated()) return false;
+                }
+            }
+            released.add(key(region.getX(), region.getZ()));
+            if(!noSave && region.isPopulated()) write(region);
+            return true;
+        });
+    }
 
-        for(Future<?> future : futures) {
+    private void write(Region region) {
+        regionsInFlight.acquireUninterruptibly();
+        writer.execute(() -> {
             try {
-                future.get();
-            } catch(InterruptedException | ExecutionException e) {
+                String name = MCAUtil.createNameFromRegionLocation(region.getX(), region.getZ());
+                LOGGER.info("Writing region ({}, {}) to {}", region.getX(), region.getZ(), name);
+                region.write(new File(name));
+            } catch(IOException e) {
                 e.printStackTrace();
+            } finally {
+                regionsInFlight.release();
             }
-        }
+        });
+    }
 
-        LOGGER.info("Average CPS: {}", CPSHistory.stream().mapToDouble(d -> d).average().orElse(0));
+    /**
+     * Record the time spent in each step of generation into timings, or stop recording if {@code null}.
+     */
+    public void setTimings(GenerationTimings timings) {
+        this.timings = timings;
     }
 
     @Override
@@ -180,10 +313,16 @@ public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector
             .get(Math.floorMod(x, 32), Math.floorMod(z, 32));
     }
 
+    /**
+     * @throws IllegalStateException if the region has already been released, since anything written to it would be lost.
+     */
     public Region getRegion(int x, int z) {
-        int key = x + z * size;
-        if(key >= 0) return regions[key];
-        else return negativeRegions[-key];
+        return regions.computeIfAbsent(key(x, z), k -> {
+            if(released.contains(k)) {
+                throw new IllegalStateException("Region (" + x + ", " + z + ") was accessed after it was released");
+            }
+            return new Region(this, x, z);
+        });
     }
 
     @Override
@@ -227,13 +366,6 @@ public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector
         return null;
     }
 
-    @Override
-    public Stream<Pair<Vector2Int, MCAFile>> serialize() {
-        return Streams
-            .concat(Arrays.stream(regions), Arrays.stream(negativeRegions))
-            .map(region -> Pair.of(Vector2Int.of(region.getX(), region.getZ()), region.serialize()));
-    }
-
     private static final class CLIProtoWorld implements ProtoWorld {
         private final CLIWorld delegate;
         private final BiomeProvider biomeProvider;
@@ -1,50 +1,116 @@
 package com.dfsek.terra.cli.world;
 
-import net.querz.mca.MCAFile;
+import net.querz.nbt.io.NBTSerializer;
+import net.querz.nbt.io.NamedTag;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
 
-import com.dfsek.terra.cli.NBTSerializable;
 import com.dfsek.terra.cli.world.chunk.CLIChunk;
 
 
-public class Region implements NBTSerializable<MCAFile> {
+public class Region {
+    private static final int SECTOR_SIZE = 4096;
+    private static final byte ZLIB_COMPRESSION = 2;
+
     private final CLIChunk[] chunks;
+    private final boolean[] generated;
     private final int x, z;
     private final CLIWorld world;
+    private volatile boolean populated = false;
 
     public Region(CLIWorld world, int x, int z) {
         this.x = x;
         this.z = z;
         this.world = world;
         this.chunks = new CLIChunk[32 * 32];
+        this.generated = new boolean[32 * 32];
     }
 
-    public CLIChunk get(int x, int z) {
+    public synchronized CLIChunk get(int x, int z) {
         int key = x + z * 32;
         CLIChunk chunk = chunks[key];
         if(chunk == null) {
-            chunk = new CLIChunk(x, z, world);
+            chunk = new CLIChunk(this.x * 32 + x, this.z * 32 + z, world);
             chunks[key] = chunk;
         }
         return chunk;
     }
 
-    @Override
-    public MCAFile serialize() {
-        MCAFile mcaFile = new MCAFile(x, z);
-        int count = 0;
-        for(int cx = 0; cx < 32; cx++) {
-            for(int cz = 0; cz < 32; cz++) {
-                CLIChunk chunk = chunks[cx + cz * 32];
-                if(chunk != null) {
-                    count++;
-                    mcaFile.setChunk(cx + cz * 32, chunk.serialize());
-                }
+    /**
+     * Mark the terrain of a chunk as generated.
+     *
+     * @return Whether the terrain of the chunk had not yet been generated.
+     */
+    public synchronized boolean markGenerated(int x, int z) {
+        int key = x + z * 32;
+        if(generated[key]) return false;
+        generated[key] = true;
+        return true;
+    }
+
+    /**
+     * Whether every chunk of this region has been populated.
+     */
+    public boolean isPopulated() {
+        return populated;
+    }
+
+    public void setPopulated() {
+        this.populated = true;
+    }
+
+    /**
+     * Write this region in the Anvil format, serializing and compressing each chunk straight into its sectors.
+     */
+    public void write(File file) throws IOException {
+        byte[][] compressed = new byte[chunks.length][];
+        NBTSerializer serializer = new NBTSerializer(false);
+        for(int i = 0; i < chunks.length; i++) {
+            if(chunks[i] == null) continue;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(SECTOR_SIZE);
+            try(OutputStream out = new DeflaterOutputStream(bytes)) {
+                serializer.toStream(new NamedTag("", chunks[i].serialize()), out);
             }
+            compressed[i] = bytes.toByteArray();
         }
-        if(count > 0) {
-            mcaFile.cleanupPalettesAndBlockStates();
+
+        int[] locations = new int[chunks.length];
+        int sector = 2; // The location and timestamp tables take the first two sectors.
+        for(int i = 0; i < chunks.length; i++) {
+            if(compressed[i] == null) continue;
+            int sectors = sectors(compressed[i].length);
+            if(sectors > 255) throw new IOException("Chunk " + i + " of region (" + x + ", " + z + ") is too large to write");
+            locations[i] = sector << 8 | sectors;
+            sector += sectors;
+        }
+
+        int timestamp = (int) (System.currentTimeMillis() / 1000);
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            for(int location : locations) {
+                out.writeInt(location);
+            }
+            for(int i = 0; i < chunks.length; i++) {
+                out.writeInt(compressed[i] == null ? 0 : timestamp);
+            }
+            for(byte[] chunk : compressed) {
+                if(chunk == null) continue;
+                out.writeInt(chunk.length + 1);
+                out.writeByte(ZLIB_COMPRESSION);
+                out.write(chunk);
+                out.write(new byte[sectors(chunk.length) * SECTOR_SIZE - chunk.length - 5]);
+            }
         }
-        return mcaFile;
+    }
+
+    private static int sectors(int compressedLength) {
+        return (compressedLength + 5 + SECTOR_SIZE - 1) / SECTOR_SIZE;
     }
 
     public int getX() {
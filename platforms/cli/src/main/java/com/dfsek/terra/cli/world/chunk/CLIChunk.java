@@ -1,5 +1,7 @@
 package com.dfsek.terra.cli.world.chunk;
 
+import net.querz.nbt.tag.CompoundTag;
+import net.querz.nbt.tag.ListTag;
 import org.jetbrains.annotations.NotNull;
 
 import com.dfsek.terra.api.block.state.BlockState;
@@ -10,24 +12,34 @@ import com.dfsek.terra.cli.NBTSerializable;
 import com.dfsek.terra.cli.block.CLIBlockState;
 import com.dfsek.terra.cli.world.CLIWorld;
 
-import static com.dfsek.terra.cli.handle.CLIWorldHandle.getAIR;
 
+public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<CompoundTag> {
+    /**
+     * Data version of the chunks written, that of 1.18, the first with the current section layout. Minecraft upgrades it on load.
+     */
+    public static final int DATA_VERSION = 2860;
 
-public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mca.Chunk> {
     private final int x;
     private final int z;
-    private final CLIBlockState[][][] blocks;
-    private final int minHeight;
+    private final ChunkSection[] sections;
+    private final int minSection;
     private final int maxHeight;
     private final CLIWorld world;
 
+    /**
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     */
     public CLIChunk(int x, int z, CLIWorld world) {
         this.x = x;
         this.z = z;
-        this.minHeight = world.getMinHeight();
         this.maxHeight = world.getMaxHeight();
         this.world = world;
-        this.blocks = new CLIBlockState[16][16][maxHeight - minHeight];
+        this.minSection = world.getMinHeight() >> 4;
+        this.sections = new ChunkSection[((maxHeight - 1) >> 4) - minSection + 1];
+        for(int i = 0; i < sections.length; i++) {
+            sections[i] = new ChunkSection();
+        }
     }
 
     @Override
@@ -37,14 +49,12 @@ public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mc
 
     @Override
     public void setBlock(int x, int y, int z, BlockState data, boolean physics) {
-        blocks[x][z][y - minHeight] = (CLIBlockState) data;
+        sections[(y >> 4) - minSection].set(x, y & 15, z, (CLIBlockState) data);
     }
 
     @Override
     public @NotNull CLIBlockState getBlock(int x, int y, int z) {
-        CLIBlockState blockState = blocks[x][z][y - minHeight];
-        if(blockState == null) return getAIR();
-        return blockState;
+        return sections[(y >> 4) - minSection].get(x, y & 15, z);
     }
 
     @Override
@@ -63,21 +73,21 @@ public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mc
     }
 
     @Override
-    public net.querz.mca.Chunk serialize() {
-        net.querz.mca.Chunk chunk = net.querz.mca.Chunk.newChunk(2230);
-        for(int x = 0; x < blocks.length; x++) {
-            for(int z = 0; z < blocks[x].length; z++) {
-                for(int y = 0; y < blocks[z][z].length; y++) {
-                    int yi = y + minHeight;
-                    if(yi < 0 || yi >= 256) continue;
-                    CLIBlockState blockState = blocks[x][z][y];
-                    if(blockState != null) {
-                        chunk.setBlockStateAt(x, yi, z, blockState.getNbt(), false);
-                    }
-                }
-            }
+    public CompoundTag serialize() {
+        CompoundTag chunk = new CompoundTag();
+        chunk.putInt("DataVersion", DATA_VERSION);
+        chunk.putInt("xPos", x);
+        chunk.putInt("zPos", z);
+        chunk.putInt("yPos", minSection);
+        chunk.putString("Status", "features");
+        ListTag<CompoundTag> sectionTags = new ListTag<>(CompoundTag.class);
+        for(int i = 0; i < sections.length; i++) {
+            CompoundTag section = new CompoundTag();
+            section.putByte("Y", (byte) (i + minSection));
+            section.put("block_states", sections[i].serialize());
+            sectionTags.add(section);
         }
-        chunk.setStatus("features");
+        chunk.put("sections", sectionTags);
         return chunk;
     }
 
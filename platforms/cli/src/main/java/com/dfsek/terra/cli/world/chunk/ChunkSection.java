@@ -0,0 +1,106 @@
+package com.dfsek.terra.cli.world.chunk;
+
+import net.querz.nbt.tag.CompoundTag;
+import net.querz.nbt.tag.ListTag;
+
+import java.util.Arrays;
+
+import com.dfsek.terra.cli.block.CLIBlockState;
+
+import static com.dfsek.terra.cli.handle.CLIWorldHandle.getAIR;
+
+
+/**
+ * The blocks of a 16³ section, stored the way Minecraft stores them in region files: a palette of the distinct states in the
+ * section, and the index of each block into it packed into longs, at least {@value #MIN_BITS} bits each and never spanning two
+ * longs. Sections of a single state store no indices at all.
+ * <p>
+ * Access is synchronized, since features populating neighbouring chunks may write to a section concurrently.
+ */
+final class ChunkSection {
+    private static final int SIZE = 16 * 16 * 16;
+    private static final int MIN_BITS = 4;
+
+    private CLIBlockState[] palette = new CLIBlockState[] { getAIR(), null, null, null };
+    private int paletteSize = 1;
+    private int bits = 0;
+    private long[] data;
+
+    private static int index(int x, int y, int z) {
+        return y << 8 | z << 4 | x;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return paletteSize <= 1 ? 0 : Math.max(MIN_BITS, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+    }
+
+    private static int longsFor(int bits) {
+        int perLong = 64 / bits;
+        return (SIZE + perLong - 1) / perLong;
+    }
+
+    synchronized CLIBlockState get(int x, int y, int z) {
+        return palette[read(index(x, y, z))];
+    }
+
+    synchronized void set(int x, int y, int z, CLIBlockState state) {
+        int paletteIndex = indexOf(state);
+        if(paletteIndex < 0) {
+            if(paletteSize == palette.length) palette = Arrays.copyOf(palette, palette.length * 2);
+            paletteIndex = paletteSize;
+            palette[paletteSize++] = state;
+            int newBits = bitsFor(paletteSize);
+            if(newBits != bits) resize(newBits);
+        }
+        if(bits != 0) write(index(x, y, z), paletteIndex);
+    }
+
+    /**
+     * Serialize this section's block states in the format of a {@code block_states} tag, with the palette built from the tags
+     * each state already holds.
+     */
+    synchronized CompoundTag serialize() {
+        CompoundTag blockStates = new CompoundTag();
+        ListTag<CompoundTag> paletteTag = new ListTag<>(CompoundTag.class);
+        for(int i = 0; i < paletteSize; i++) {
+            paletteTag.add(palette[i].getNbt());
+        }
+        blockStates.put("palette", paletteTag);
+        if(bits != 0) blockStates.putLongArray("data", data.clone());
+        return blockStates;
+    }
+
+    private int indexOf(CLIBlockState state) {
+        for(int i = 0; i < paletteSize; i++) {
+            if(palette[i].equals(state)) return i;
+        }
+        return -1;
+    }
+
+    private void resize(int newBits) {
+        int[] indices = new int[SIZE];
+        for(int i = 0; i < SIZE; i++) {
+            indices[i] = read(i);
+        }
+        this.bits = newBits;
+        this.data = new long[longsFor(newBits)];
+        for(int i = 0; i < SIZE; i++) {
+            write(i, indices[i]);
+        }
+    }
+
+    private int read(int index) {
+        if(bits == 0) return 0;
+        int perLong = 64 / bits;
+        int shift = (index % perLong) * bits;
+        return (int) ((data[index / perLong] >>> shift) & ((1L << bits) - 1));
+    }
+
+    private void write(int index, int paletteIndex) {
+        int perLong = 64 / bits;
+        int shift = (index % perLong) * bits;
+        long mask = ((1L << bits) - 1) << shift;
+        int longIndex = index / perLong;
+        data[longIndex] = (data[longIndex] & ~mask) | ((long) paletteIndex << shift);
+    }
+}
@@ -5,6 +5,7 @@ import net.kyori.adventure.nbt.TagStringIO;
 import net.minestom.server.instance.block.Block;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -22,10 +23,42 @@ public record MinestomBlockState(Block block) implements BlockState {
     public static final MinestomBlockState AIR = new MinestomBlockState(Block.AIR);
     private static final TagStringIO tagStringIO = TagStringIO.tagStringIO();
 
+    /**
+     * Interned states without NBT or a handler, indexed by state ID. Grown on demand. Entries are only ever set once, and
+     * records are safely published, so they can be read without locking.
+     */
+    private static volatile MinestomBlockState[] byStateId = new MinestomBlockState[0];
+
     public MinestomBlockState {
         block = Objects.requireNonNullElse(block, Block.AIR);
     }
 
+    /**
+     * Get the state with a state ID, without allocating once the state has been requested before.
+     */
+    public static MinestomBlockState fromStateId(int stateId) {
+        MinestomBlockState[] states = byStateId;
+        if(stateId < states.length) {
+            MinestomBlockState state = states[stateId];
+            if(state != null) return state;
+        }
+        return intern(stateId);
+    }
+
+    private static synchronized MinestomBlockState intern(int stateId) {
+        MinestomBlockState[] states = byStateId;
+        if(stateId >= states.length) {
+            states = Arrays.copyOf(states, Math.max(stateId + 1, states.length * 2));
+        }
+        MinestomBlockState state = states[stateId];
+        if(state == null) {
+            state = new MinestomBlockState(Block.fromStateId(stateId));
+            states[stateId] = state;
+        }
+        byStateId = states;
+        return state;
+    }
+
     public static MinestomBlockState fromStateId(String data) {
         CompoundBinaryTag nbt = CompoundBinaryTag.empty();
         int splitIndex = data.indexOf('{');
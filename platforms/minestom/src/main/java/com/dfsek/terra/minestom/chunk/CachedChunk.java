@@ -2,30 +2,136 @@ package com.dfsek.terra.minestom.chunk;
 
 
 import net.minestom.server.instance.block.Block;
+import net.minestom.server.instance.generator.GenerationUnit;
+import net.minestom.server.instance.generator.GeneratorImpl.AreaModifierImpl;
+import net.minestom.server.instance.generator.GeneratorImpl.SectionModifierImpl;
 import net.minestom.server.instance.generator.UnitModifier;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.dfsek.terra.api.block.state.BlockState;
 import com.dfsek.terra.api.world.chunk.generation.ProtoChunk;
 import com.dfsek.terra.minestom.block.MinestomBlockState;
 
 
+/**
+ * Generated blocks of a chunk. While the chunk is being generated, block state IDs are stored in a flat array per 16³
+ * section. Once it is generated, each section is compacted into a {@link PalettedSection}, so that many chunks fit in the cache,
+ * and copied into Minestom's section palettes in bulk.
+ */
 public class CachedChunk implements ProtoChunk {
+    private static final byte UNKNOWN = 0;
+    private static final byte NOT_BLOCK_ENTITY = 1;
+    private static final byte BLOCK_ENTITY = 2;
+
+    /**
+     * Whether each state is a block entity, indexed by state ID. Grown on demand.
+     */
+    private static volatile byte[] blockEntities = new byte[0];
+
     private final int minHeight;
     private final int maxHeight;
-    private final MinestomBlockState[] blocks;
+
+    /**
+     * Block state IDs of each section while generating, indexed by {@code y << 8 | z << 4 | x}. ID 0 is air. {@code null} once
+     * compacted.
+     */
+    private int[][] generating;
+
+    private PalettedSection[] sections;
+
+    /**
+     * Blocks which can't be represented by their state ID alone, because they carry NBT or a handler, keyed by chunk index.
+     */
+    private final Map<Integer, MinestomBlockState> specialBlocks = new ConcurrentHashMap<>();
+
+    /**
+     * Number of populated chunks in the 3x3 area around this chunk, including itself.
+     */
+    private final AtomicInteger populatedNeighbours = new AtomicInteger();
+
+    private volatile boolean released = false;
 
     public CachedChunk(int minHeight, int maxHeight) {
         this.minHeight = minHeight;
         this.maxHeight = maxHeight;
-        this.blocks = new MinestomBlockState[16 * (maxHeight - minHeight + 1) * 16];
-        Arrays.fill(blocks, MinestomBlockState.AIR);
+        this.generating = new int[((maxHeight - minHeight) >> 4) + 1][16 * 16 * 16];
+    }
+
+    private static boolean isSpecial(Block block) {
+        return block.hasNbt() || block.handler() != null || isBlockEntity(block.stateId());
+    }
+
+    /**
+     * Whether a state is a block entity, cached by state ID so that writes don't look up the registry entry of every block.
+     */
+    private static boolean isBlockEntity(int stateId) {
+        byte[] blockEntities = CachedChunk.blockEntities;
+        if(stateId < blockEntities.length && blockEntities[stateId] != UNKNOWN) {
+            return blockEntities[stateId] == BLOCK_ENTITY;
+        }
+        return cacheBlockEntity(stateId);
     }
 
-    public void writeRelative(UnitModifier modifier) {
-        modifier.setAllRelative((x, y, z) -> blocks[getIndex(x, y + minHeight, z)].block());
+    private static synchronized boolean cacheBlockEntity(int stateId) {
+        byte[] blockEntities = CachedChunk.blockEntities;
+        if(stateId >= blockEntities.length) {
+            blockEntities = Arrays.copyOf(blockEntities, Math.max(stateId + 1, blockEntities.length * 2));
+        }
+        Block block = Block.fromStateId(stateId);
+        boolean blockEntity = block != null && block.registry().isBlockEntity();
+        blockEntities[stateId] = blockEntity ? BLOCK_ENTITY : NOT_BLOCK_ENTITY;
+        CachedChunk.blockEntities = blockEntities;
+        return blockEntity;
+    }
+
+    /**
+     * Compact the generated blocks. Must be called once the chunk is generated, before it is shared with other threads.
+     */
+    void compact() {
+        PalettedSection[] sections = new PalettedSection[generating.length];
+        for(int i = 0; i < sections.length; i++) {
+            sections[i] = PalettedSection.of(generating[i]);
+        }
+        this.sections = sections;
+        this.generating = null;
+    }
+
+    /**
+     * Whether this chunk and all of its neighbours have been populated, so it is no longer needed by population.
+     */
+    boolean isReleased() {
+        return released;
+    }
+
+    void release() {
+        this.released = true;
+    }
+
+    /**
+     * Record that a chunk in the 3x3 area around this chunk has been populated.
+     *
+     * @return Number of populated chunks in the area so far.
+     */
+    int neighbourPopulated() {
+        return populatedNeighbours.incrementAndGet();
+    }
+
+    public void writeRelative(GenerationUnit unit) {
+        UnitModifier modifier = unit.modifier();
+        for(GenerationUnit section : ((AreaModifierImpl) modifier).sections()) {
+            int sectionIndex = (section.absoluteStart().blockY() - minHeight) >> 4;
+            if(sectionIndex < 0 || sectionIndex >= sections.length) continue;
+            PalettedSection storage = sections[sectionIndex];
+            if(storage.isAir()) continue; // Sections are generated as air.
+            storage.copyTo(((SectionModifierImpl) section.modifier()).genSection().blocks());
+        }
+        specialBlocks.forEach((index, state) -> modifier.setRelative(index & 15, (index >> 8) + minHeight, (index >> 4) & 15,
+            state.block()));
     }
 
     @Override
@@ -33,26 +139,41 @@ public class CachedChunk implements ProtoChunk {
         MinestomBlockState minestomBlockState = (MinestomBlockState) blockState;
         Block block = minestomBlockState.block();
         if(block == null) return;
-        int index = getIndex(x, y, z);
-        if(index > blocks.length || index < 0) return;
-        blocks[index] = minestomBlockState;
-    }
+        int yNormalized = y - minHeight;
+        if(yNormalized < 0 || y > maxHeight) return;
+        int sectionIndex = yNormalized >> 4;
+        int sectionBlockIndex = (yNormalized & 15) << 8 | z << 4 | x;
+        if(generating != null) {
+            generating[sectionIndex][sectionBlockIndex] = block.stateId();
+        } else {
+            sections[sectionIndex].set(sectionBlockIndex, block.stateId());
+        }
 
-    private int getIndex(int x, int y, int z) {
-        int y_normalized = y - minHeight;
-        return x + (z * 16) + (y_normalized * 256);
+        int index = yNormalized << 8 | z << 4 | x;
+        if(isSpecial(block)) {
+            specialBlocks.put(index, minestomBlockState);
+        } else if(!specialBlocks.isEmpty()) {
+            specialBlocks.remove(index);
+        }
     }
 
     @Override
     public @NotNull BlockState getBlock(int x, int y, int z) {
-        int index = getIndex(x, y, z);
-        if(index > blocks.length || index < 0) return MinestomBlockState.AIR;
-        return blocks[index];
+        int yNormalized = y - minHeight;
+        if(yNormalized < 0 || y > maxHeight) return MinestomBlockState.AIR;
+        if(!specialBlocks.isEmpty()) {
+            MinestomBlockState special = specialBlocks.get(yNormalized << 8 | z << 4 | x);
+            if(special != null) return special;
+        }
+        int sectionIndex = yNormalized >> 4;
+        int sectionBlockIndex = (yNormalized & 15) << 8 | z << 4 | x;
+        int id = generating != null ? generating[sectionIndex][sectionBlockIndex] : sections[sectionIndex].get(sectionBlockIndex);
+        return MinestomBlockState.fromStateId(id);
     }
 
     @Override
     public Object getHandle() {
-        return blocks;
+        return this;
     }
 
     @Override
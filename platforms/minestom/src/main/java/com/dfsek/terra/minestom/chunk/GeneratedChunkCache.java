@@ -3,19 +3,30 @@ package com.dfsek.terra.minestom.chunk;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import net.minestom.server.ServerFlag;
 import net.minestom.server.world.DimensionType;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+
 import com.dfsek.terra.api.util.generic.pair.Pair;
 import com.dfsek.terra.api.world.ServerWorld;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.chunk.generation.ChunkGenerator;
 
 
+/**
+ * Cache of generated chunks, read and written by population of their neighbours.
+ * <p>
+ * A chunk is held until it and all eight of its neighbours have been populated, so that it isn't regenerated partway through.
+ * Held chunks don't count towards the cache size, which otherwise covers the chunks within the server's view distance. Held
+ * chunks that aren't accessed for a while are dropped all the same, for neighbours that are never populated.
+ */
 public class GeneratedChunkCache {
     private static final Logger log = LoggerFactory.getLogger(GeneratedChunkCache.class);
+    private static final Duration HELD_EXPIRY = Duration.ofMinutes(5);
     private final LoadingCache<@NotNull Long, CachedChunk> cache;
     private final DimensionType dimensionType;
     private final ChunkGenerator generator;
@@ -27,8 +38,11 @@ public class GeneratedChunkCache {
         this.generator = generator;
         this.world = world;
         this.biomeProvider = biomeProvider;
+        int diameter = 2 * (ServerFlag.CHUNK_VIEW_DISTANCE + 1) + 1;
         this.cache = Caffeine.newBuilder()
-            .maximumSize(128)
+            .maximumWeight((long) diameter * diameter)
+            .weigher((Long key, CachedChunk chunk) -> chunk.isReleased() ? 1 : 0)
+            .expireAfterAccess(HELD_EXPIRY)
             .recordStats()
             .build((Long key) -> generateChunk(unpackX(key), unpackZ(key)));
     }
@@ -36,9 +50,29 @@ public class GeneratedChunkCache {
     private CachedChunk generateChunk(int x, int z) {
         CachedChunk chunk = new CachedChunk(dimensionType.minY(), dimensionType.maxY());
         generator.generateChunkData(chunk, world, biomeProvider, x, z);
+        chunk.compact();
         return chunk;
     }
 
+    /**
+     * Record that a chunk has been populated, releasing any chunks around it whose neighbours have now all been populated.
+     * <p>
+     * The count is kept on each cached chunk, so it expires along with the chunk, and a chunk that is generated again starts
+     * counting from zero.
+     */
+    public void populated(int x, int z) {
+        for(int dx = -1; dx <= 1; dx++) {
+            for(int dz = -1; dz <= 1; dz++) {
+                long key = pack(x + dx, z + dz);
+                CachedChunk chunk = cache.getIfPresent(key);
+                if(chunk != null && chunk.neighbourPopulated() == 9) {
+                    chunk.release();
+                    cache.put(key, chunk); // Re-weigh the chunk, so that it can be evicted.
+                }
+            }
+        }
+    }
+
     public void displayStats() {
         CacheStats stats = cache.stats();
         log.info("Avg load time: %.4fms | Hit rate: %3.4f%% | Load Count: %d"
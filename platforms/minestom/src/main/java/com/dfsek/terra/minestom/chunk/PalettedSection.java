@@ -0,0 +1,126 @@
+package com.dfsek.terra.minestom.chunk;
+
+import net.minestom.server.instance.palette.Palette;
+
+import java.util.Arrays;
+
+
+/**
+ * Compact storage of the block state IDs of a 16³ section: a palette of the distinct IDs in the section, and the index of
+ * each block into it packed into as few bits as the palette allows. Sections of a single block store no indices at all.
+ * <p>
+ * Access is synchronized, since features populating neighbouring chunks may write to a section concurrently.
+ */
+final class PalettedSection {
+    private static final int SIZE = 16 * 16 * 16;
+
+    private int[] palette;
+    private int paletteSize;
+    private int bits;
+    private long[] data;
+
+    private PalettedSection(int[] palette, int paletteSize) {
+        this.palette = palette;
+        this.paletteSize = paletteSize;
+        this.bits = bitsFor(paletteSize);
+        this.data = bits == 0 ? null : new long[longsFor(bits)];
+    }
+
+    /**
+     * Compact the IDs of a section.
+     *
+     * @param ids Block state IDs, indexed by {@code y << 8 | z << 4 | x}
+     */
+    static PalettedSection of(int[] ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int distinct = 1;
+        for(int i = 1; i < SIZE; i++) {
+            if(sorted[i] != sorted[distinct - 1]) sorted[distinct++] = sorted[i];
+        }
+        PalettedSection section = new PalettedSection(Arrays.copyOf(sorted, distinct), distinct);
+        if(section.bits != 0) {
+            for(int i = 0; i < SIZE; i++) {
+                section.write(i, Arrays.binarySearch(section.palette, 0, distinct, ids[i]));
+            }
+        }
+        return section;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return paletteSize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+    }
+
+    private static int longsFor(int bits) {
+        int perLong = 64 / bits;
+        return (SIZE + perLong - 1) / perLong;
+    }
+
+    synchronized int get(int index) {
+        return palette[read(index)];
+    }
+
+    synchronized void set(int index, int id) {
+        int paletteIndex = indexOf(id);
+        if(paletteIndex < 0) {
+            if(paletteSize == palette.length) palette = Arrays.copyOf(palette, palette.length * 2);
+            paletteIndex = paletteSize;
+            palette[paletteSize++] = id;
+            int newBits = bitsFor(paletteSize);
+            if(newBits != bits) resize(newBits);
+        }
+        if(bits != 0) write(index, paletteIndex);
+    }
+
+    /**
+     * Whether every block of this section is air.
+     */
+    synchronized boolean isAir() {
+        for(int i = 0; i < paletteSize; i++) {
+            if(palette[i] != 0) return false;
+        }
+        return true;
+    }
+
+    synchronized void copyTo(Palette target) {
+        if(bits == 0) {
+            target.fill(palette[0]);
+        } else {
+            target.setAll((x, y, z) -> palette[read(y << 8 | z << 4 | x)]);
+        }
+    }
+
+    private int indexOf(int id) {
+        for(int i = 0; i < paletteSize; i++) {
+            if(palette[i] == id) return i;
+        }
+        return -1;
+    }
+
+    private void resize(int newBits) {
+        int[] indices = new int[SIZE];
+        for(int i = 0; i < SIZE; i++) {
+            indices[i] = read(i);
+        }
+        this.bits = newBits;
+        this.data = new long[longsFor(newBits)];
+        for(int i = 0; i < SIZE; i++) {
+            write(i, indices[i]);
+        }
+    }
+
+    private int read(int index) {
+        if(bits == 0) return 0;
+        int perLong = 64 / bits;
+        int shift = (index % perLong) * bits;
+        return (int) ((data[index / perLong] >>> shift) & ((1L << bits) - 1));
+    }
+
+    private void write(int index, int paletteIndex) {
+        int perLong = 64 / bits;
+        int shift = (index % perLong) * bits;
+        long mask = ((1L << bits) - 1) << shift;
+        int longIndex = index / perLong;
+        data[longIndex] = (data[longIndex] & ~mask) | ((long) paletteIndex << shift);
+    }
+}
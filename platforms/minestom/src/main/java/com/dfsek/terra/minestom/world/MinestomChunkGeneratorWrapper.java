@@ -5,28 +5,39 @@ import net.minestom.server.instance.generator.GenerationUnit;
 import net.minestom.server.instance.generator.Generator;
 import net.minestom.server.instance.generator.GeneratorImpl.AreaModifierImpl;
 import net.minestom.server.instance.generator.GeneratorImpl.SectionModifierImpl;
-import net.minestom.server.instance.generator.UnitModifier;
 import net.minestom.server.instance.palette.Palette;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.world.biome.Biome;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.chunk.generation.ChunkGenerator;
 import com.dfsek.terra.api.world.chunk.generation.stage.GenerationStage;
 import com.dfsek.terra.api.world.chunk.generation.util.GeneratorWrapper;
 import com.dfsek.terra.minestom.biome.MinestomUserDefinedBiomePool;
-import com.dfsek.terra.minestom.biome.UserDefinedBiome;
 import com.dfsek.terra.minestom.chunk.CachedChunk;
 import com.dfsek.terra.minestom.chunk.GeneratedChunkCache;
 
 
 public class MinestomChunkGeneratorWrapper implements Generator, GeneratorWrapper {
+    /**
+     * Size of Minestom's biome cells on each axis, biomes are resolved once per cell.
+     */
+    private static final int BIOME_CELL_SIZE = 4;
+
     private final GeneratedChunkCache cache;
     private final TerraMinestomWorld world;
     private final BiomeProvider biomeProvider;
     private final MinestomUserDefinedBiomePool biomePool;
     private ChunkGenerator generator;
     private ConfigPack pack;
+    /**
+     * Registry ID of each biome of the pack, resolved on first use.
+     */
+    private volatile Map<Biome, Integer> biomeRegistryIds;
 
     public MinestomChunkGeneratorWrapper(
         ChunkGenerator generator,
@@ -42,6 +53,22 @@ public class MinestomChunkGeneratorWrapper implements Generator, GeneratorWrappe
         this.cache = new GeneratedChunkCache(world.getDimensionType(), generator, world, biomeProvider);
     }
 
+    /**
+     * Get the registry ID of each biome of the pack, so that generating a chunk doesn't go through the biome pool for every
+     * biome cell.
+     */
+    private Map<Biome, Integer> biomeRegistryIds() {
+        Map<Biome, Integer> registryIds = biomeRegistryIds;
+        if(registryIds == null) {
+            registryIds = new IdentityHashMap<>();
+            for(Biome biome : pack.getBiomeProvider().getBiomes()) {
+                registryIds.put(biome, biomePool.getBiome(pack, biome).registryId());
+            }
+            biomeRegistryIds = registryIds;
+        }
+        return registryIds;
+    }
+
     public ChunkGenerator getGenerator() {
         return generator;
     }
@@ -55,32 +82,29 @@ public class MinestomChunkGeneratorWrapper implements Generator, GeneratorWrappe
         int blockX = start.blockX();
         int blockZ = start.blockZ();
         CachedChunk chunk = cache.at(x, z);
-        UnitModifier modifier = unit.modifier();
-        chunk.writeRelative(modifier);
+        chunk.writeRelative(unit);
 
-        AreaModifierImpl areaModifiers = (AreaModifierImpl) modifier;
+        AreaModifierImpl areaModifiers = (AreaModifierImpl) unit.modifier();
+        int minY = start.blockY();
+        int maxY = unit.absoluteEnd().blockY();
+        Palette[] biomes = new Palette[(maxY - minY) >> 4];
         for(GenerationUnit section : areaModifiers.sections()) {
-            SectionModifierImpl sectionModifier = (SectionModifierImpl) section.modifier();
-            Palette biomes = sectionModifier.genSection().biomes();
-            int minY = section.absoluteStart().blockY();
-            for(int relativeX = 0; relativeX < 16; relativeX += 1) {
-                int absoluteX = blockX + relativeX;
-                for(int relativeZ = 0; relativeZ < 16; relativeZ += 1) {
-                    int absoluteZ = blockZ + relativeZ;
-                    for(int relativeY = 0; relativeY < 16; relativeY += 1) {
-                        int absoluteY = minY + relativeY;
-
-                        if(relativeX % 4 == 0 && relativeY % 4 == 0 && relativeZ % 4 == 0) {
-                            UserDefinedBiome userDefinedBiome = biomePool.getBiome(
-                                pack,
-                                biomeProvider.getBiome(absoluteX, absoluteY, absoluteZ, world.getSeed())
-                            );
-
-                            int registryId = userDefinedBiome.registryId();
-                            biomes.set(relativeX / 4, relativeY / 4, relativeZ / 4, registryId);
+            biomes[(section.absoluteStart().blockY() - minY) >> 4] = ((SectionModifierImpl) section.modifier()).genSection().biomes();
+        }
+        Map<Biome, Integer> registryIds = biomeRegistryIds();
+        for(int cellX = 0; cellX < 16; cellX += BIOME_CELL_SIZE) {
+            for(int cellZ = 0; cellZ < 16; cellZ += BIOME_CELL_SIZE) {
+                int paletteX = cellX / BIOME_CELL_SIZE;
+                int paletteZ = cellZ / BIOME_CELL_SIZE;
+                biomeProvider
+                    .getColumn(blockX + cellX, blockZ + cellZ, world.getSeed(), minY, maxY)
+                    .forRanges(BIOME_CELL_SIZE, (min, max, biome) -> {
+                        Integer registryId = registryIds.get(biome);
+                        int id = registryId != null ? registryId : biomePool.getBiome(pack, biome).registryId();
+                        for(int y = min; y < max; y += BIOME_CELL_SIZE) {
+                            biomes[(y - minY) >> 4].set(paletteX, ((y - minY) & 15) / BIOME_CELL_SIZE, paletteZ, id);
                         }
-                    }
-                }
+                    });
             }
         }
 
@@ -90,6 +114,7 @@ public class MinestomChunkGeneratorWrapper implements Generator, GeneratorWrappe
             for(GenerationStage stage : world.getPack().getStages()) {
                 stage.populate(protoWorld);
             }
+            cache.populated(x, z);
         });
     }
 
@@ -101,6 +126,7 @@ public class MinestomChunkGeneratorWrapper implements Generator, GeneratorWrappe
         this.pack = pack;
         this.generator = pack.getGeneratorProvider().newInstance(pack);
         this.biomePool.invalidate();
+        this.biomeRegistryIds = null;
     }
 
     public void displayStats() {
@@ -0,0 +1,148 @@
+/*
+ * This file is part of Terra.
+ *
+ * Terra is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Terra is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Terra.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.dfsek.terra.mod.generation;
+
+import net.minecraft.block.Blocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.dfsek.terra.api.block.entity.BlockEntity;
+import com.dfsek.terra.api.block.state.BlockState;
+import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.entity.Entity;
+import com.dfsek.terra.api.entity.EntityType;
+import com.dfsek.terra.api.world.ServerWorld;
+import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+import com.dfsek.terra.api.world.chunk.generation.ChunkGenerator;
+import com.dfsek.terra.api.world.chunk.generation.ProtoWorld;
+
+
+/**
+ * A {@link ProtoWorld} limited to its centre chunk, for populating chunkified stages while noise is generated, when no
+ * neighbouring chunks exist yet.
+ * <p>
+ * Blocks outside the centre chunk read as air, and writes to them are discarded. The first discarded write is logged, since it
+ * means a stage marked as chunkified does not stay within its chunk.
+ */
+class ChunkBoundedProtoWorld implements ProtoWorld {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkBoundedProtoWorld.class);
+    private static final AtomicBoolean WARNED = new AtomicBoolean(false);
+    private static final BlockState AIR = (BlockState) Blocks.AIR.getDefaultState();
+
+    private final ProtoWorld delegate;
+    private final int chunkX;
+    private final int chunkZ;
+
+    ChunkBoundedProtoWorld(ProtoWorld delegate) {
+        this.delegate = delegate;
+        this.chunkX = delegate.centerChunkX();
+        this.chunkZ = delegate.centerChunkZ();
+    }
+
+    private boolean inChunk(int x, int z) {
+        return x >> 4 == chunkX && z >> 4 == chunkZ;
+    }
+
+    @Override
+    public void setBlockState(int x, int y, int z, BlockState data, boolean physics) {
+        if(inChunk(x, z)) {
+            delegate.setBlockState(x, y, z, data, physics);
+        } else if(!WARNED.getAndSet(true)) {
+            logger.warn("A chunkified generation stage placed a block at ({}, {}, {}), outside of chunk ({}, {}). " +
+                        "Blocks placed outside of the chunk by chunkified stages are discarded. This warning is only shown once.",
+                x, y, z, chunkX, chunkZ);
+        }
+    }
+
+    @Override
+    public BlockState getBlockState(int x, int y, int z) {
+        return inChunk(x, z) ? delegate.getBlockState(x, y, z) : AIR;
+    }
+
+    @Override
+    public void getBlockStates(int x, int z, int minY, BlockState[] states) {
+        if(inChunk(x, z)) {
+            delegate.getBlockStates(x, z, minY, states);
+        } else {
+            Arrays.fill(states, AIR);
+        }
+    }
+
+    @Override
+    public BlockEntity getBlockEntity(int x, int y, int z) {
+        return inChunk(x, z) ? delegate.getBlockEntity(x, y, z) : null;
+    }
+
+    @Override
+    public Entity spawnEntity(double x, double y, double z, EntityType entityType) {
+        return delegate.spawnEntity(x, y, z, entityType);
+    }
+
+    @Override
+    public int centerChunkX() {
+        return chunkX;
+    }
+
+    @Override
+    public int centerChunkZ() {
+        return chunkZ;
+    }
+
+    @Override
+    public ServerWorld getWorld() {
+        return delegate.getWorld();
+    }
+
+    @Override
+    public ChunkGenerator getGenerator() {
+        return delegate.getGenerator();
+    }
+
+    @Override
+    public BiomeProvider getBiomeProvider() {
+        return delegate.getBiomeProvider();
+    }
+
+    @Override
+    public ConfigPack getPack() {
+        return delegate.getPack();
+    }
+
+    @Override
+    public long getSeed() {
+        return delegate.getSeed();
+    }
+
+    @Override
+    public int getMaxHeight() {
+        return delegate.getMaxHeight();
+    }
+
+    @Override
+    public int getMinHeight() {
+        return delegate.getMinHeight();
+    }
+
+    @Override
+    public Object getHandle() {
+        return delegate.getHandle();
+    }
+}
@@ -22,14 +22,20 @@ import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.command.argument.BlockStateArgument;
 import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.structure.PoolStructurePiece;
+import net.minecraft.structure.StructurePiece;
+import net.minecraft.structure.StructureStart;
 import net.minecraft.util.Util;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.random.CheckedRandom;
 import net.minecraft.util.math.random.ChunkRandom;
 import net.minecraft.util.math.random.RandomSeed;
 import net.minecraft.world.ChunkRegion;
 import net.minecraft.world.HeightLimitView;
+import net.minecraft.world.Heightmap;
 import net.minecraft.world.Heightmap.Type;
 import net.minecraft.world.SpawnHelper;
 import net.minecraft.world.StructureWorldAccess;
@@ -42,10 +48,13 @@ import net.minecraft.world.gen.chunk.Blender;
 import net.minecraft.world.gen.chunk.VerticalBlockSample;
 import net.minecraft.world.gen.densityfunction.DensityFunction.UnblendedNoisePos;
 import net.minecraft.world.gen.noise.NoiseConfig;
+import net.minecraft.world.gen.structure.StructureTerrainAdaptation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import com.dfsek.terra.api.block.state.BlockStateExtended;
@@ -66,9 +75,15 @@ import com.dfsek.terra.mod.util.SeedHack;
 
 public class MinecraftChunkGeneratorWrapper extends net.minecraft.world.gen.chunk.ChunkGenerator implements GeneratorWrapper {
     private static final Logger logger = LoggerFactory.getLogger(MinecraftChunkGeneratorWrapper.class);
+    private static final Set<Type> WORLDGEN_HEIGHTMAPS = EnumSet.of(Type.OCEAN_FLOOR_WG, Type.WORLD_SURFACE_WG);
+    /**
+     * Distance from a structure piece beyond which its terrain adaptation has no weight.
+     */
+    private static final int BEARD_RADIUS = 12;
 
     private final TerraBiomeSource biomeSource;
     private final GenerationSettings settings;
+    private final SeedHack.Lookup seeds = new SeedHack.Lookup();
     private ChunkGenerator delegate;
     private ConfigPack pack;
 
@@ -112,32 +127,92 @@ public class MinecraftChunkGeneratorWrapper extends net.minecraft.world.gen.chun
             ProtoWorld world = (ProtoWorld) ((StructureAccessorAccessor) structureAccessor).getWorld();
             BiomeProvider biomeProvider = pack.getBiomeProvider();
             delegate.generateChunkData((ProtoChunk) chunk, world, biomeProvider, chunk.getPos().x, chunk.getPos().z);
+            // Terrain is written straight to chunk sections, so heightmaps are populated once afterwards instead of per block.
+            Heightmap.populateHeightmaps(chunk, WORLDGEN_HEIGHTMAPS);
 
             PreLoadCompatibilityOptions compatibilityOptions = pack.getContext().get(PreLoadCompatibilityOptions.class);
             if(compatibilityOptions.isBeard()) {
                 beard(structureAccessor, chunk, world, biomeProvider, compatibilityOptions);
             }
+
+            // Chunkified stages stay within this chunk, so they can run now rather than waiting for neighbouring chunks. This runs
+            // them ahead of every other stage, regardless of their order in the pack.
+            ProtoWorld chunkWorld = new ChunkBoundedProtoWorld(world);
+            pack.getStages().forEach(populator -> {
+                if(populator instanceof Chunkified) {
+                    populator.populate(chunkWorld);
+                }
+            });
             return chunk;
         }, Util.getMainWorkerExecutor());
     }
 
     private void beard(StructureAccessor structureAccessor, Chunk chunk, WorldProperties world, BiomeProvider biomeProvider,
                        PreLoadCompatibilityOptions compatibilityOptions) {
-        StructureWeightSampler structureWeightSampler = StructureWeightSampler.createStructureWeightSampler(structureAccessor,
-            chunk.getPos());
         double threshold = compatibilityOptions.getBeardThreshold();
         double airThreshold = compatibilityOptions.getAirThreshold();
-        int xi = chunk.getPos().x << 4;
-        int zi = chunk.getPos().z << 4;
-        for(int x = 0; x < 16; x++) {
-            for(int z = 0; z < 16; z++) {
+        ChunkPos chunkPos = chunk.getPos();
+        int xi = chunkPos.x << 4;
+        int zi = chunkPos.z << 4;
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+
+        // Blocks with no structure weight are left alone, unless the thresholds are set so that a weight of 0 changes them.
+        int minX = 0, maxX = 15, minZ = 0, maxZ = 15;
+        if(threshold >= 0 && airThreshold <= 0) {
+            int boundsMinX = Integer.MAX_VALUE, boundsMaxX = Integer.MIN_VALUE;
+            int boundsMinY = Integer.MAX_VALUE, boundsMaxY = Integer.MIN_VALUE;
+            int boundsMinZ = Integer.MAX_VALUE, boundsMaxZ = Integer.MIN_VALUE;
+            for(StructureStart start : structureAccessor.getStructureStarts(chunkPos,
+                structure -> structure.getTerrainAdaptation() != StructureTerrainAdaptation.NONE)) {
+                for(StructurePiece piece : start.getChildren()) {
+                    if(!piece.intersectsChunk(chunkPos, BEARD_RADIUS)) continue;
+                    BlockBox box = piece.getBoundingBox();
+                    int groundLevelDelta = piece instanceof PoolStructurePiece pool ? Math.abs(pool.getGroundLevelDelta()) : 0;
+                    boundsMinX = Math.min(boundsMinX, box.getMinX() - BEARD_RADIUS);
+                    boundsMaxX = Math.max(boundsMaxX, box.getMaxX() + BEARD_RADIUS);
+                    boundsMinY = Math.min(boundsMinY, box.getMinY() - BEARD_RADIUS - groundLevelDelta);
+                    boundsMaxY = Math.max(boundsMaxY, box.getMaxY() + BEARD_RADIUS + groundLevelDelta);
+                    boundsMinZ = Math.min(boundsMinZ, box.getMinZ() - BEARD_RADIUS);
+                    boundsMaxZ = Math.max(boundsMaxZ, box.getMaxZ() + BEARD_RADIUS);
+                }
+            }
+            if(boundsMinX > boundsMaxX) return; // No structure is close enough to this chunk to affect it.
+            minX = Math.max(minX, boundsMinX - xi);
+            maxX = Math.min(maxX, boundsMaxX - xi);
+            minZ = Math.max(minZ, boundsMinZ - zi);
+            maxZ = Math.min(maxZ, boundsMaxZ - zi);
+            minY = Math.max(minY, boundsMinY);
+            maxY = Math.min(maxY, boundsMaxY);
+            if(minX > maxX || minZ > maxZ || minY > maxY) return;
+        }
+
+        // Sample the weight at the corners of 4x4x4 cells and interpolate within them, like terrain noise.
+        StructureWeightSampler structureWeightSampler = StructureWeightSampler.createStructureWeightSampler(structureAccessor,
+            chunkPos);
+        int cellMinX = minX >> 2, cellMinZ = minZ >> 2, cellMinY = Math.floorDiv(minY, 4);
+        int sizeX = (maxX >> 2) - cellMinX + 2, sizeZ = (maxZ >> 2) - cellMinZ + 2, sizeY = Math.floorDiv(maxY, 4) - cellMinY + 2;
+        double[] weights = new double[sizeX * sizeY * sizeZ];
+        for(int cx = 0; cx < sizeX; cx++) {
+            for(int cz = 0; cz < sizeZ; cz++) {
+                for(int cy = 0; cy < sizeY; cy++) {
+                    weights[(cx * sizeZ + cz) * sizeY + cy] = structureWeightSampler.sample(
+                        new UnblendedNoisePos(xi + ((cellMinX + cx) << 2), (cellMinY + cy) << 2, zi + ((cellMinZ + cz) << 2)));
+                }
+            }
+        }
+
+        BlockPos.Mutable blockPos = new BlockPos.Mutable();
+        for(int x = minX; x <= maxX; x++) {
+            for(int z = minZ; z <= maxZ; z++) {
                 int depth = 0;
-                for(int y = world.getMaxHeight(); y >= world.getMinHeight(); y--) {
-                    double noise = structureWeightSampler.sample(new UnblendedNoisePos(x + xi, y, z + zi));
+                for(int y = maxY; y >= minY; y--) {
+                    double noise = interpolateWeight(weights, sizeY, sizeZ, x - (cellMinX << 2), y - (cellMinY << 2),
+                        z - (cellMinZ << 2));
                     if(noise > threshold) {
                         com.dfsek.terra.api.block.state.BlockState data = delegate.getPalette(x + xi, y, z + zi, world, biomeProvider).get(
                             depth, x + xi, y, z + zi, world.getSeed());
-                        BlockPos blockPos = new BlockPos(x, y, z);
+                        blockPos.set(x, y, z);
                         boolean isExtended = data.isExtended() && data.getClass().equals(BlockStateArgument.class);
                         if(isExtended) {
                             BlockStateExtended blockStateExtended = (BlockStateExtended) data;
@@ -149,7 +224,7 @@ public class MinecraftChunkGeneratorWrapper extends net.minecraft.world.gen.chun
                         }
                         depth++;
                     } else if(noise < airThreshold) {
-                        chunk.setBlockState(new BlockPos(x, y, z), Blocks.AIR.getDefaultState(), 0);
+                        chunk.setBlockState(blockPos.set(x, y, z), Blocks.AIR.getDefaultState(), 0);
                     } else {
                         depth = 0;
                     }
@@ -158,6 +233,27 @@ public class MinecraftChunkGeneratorWrapper extends net.minecraft.world.gen.chun
         }
     }
 
+    /**
+     * Trilinearly interpolate cell corner weights, sampled every 4 blocks.
+     *
+     * @param x Block x, relative to the first sampled corner
+     * @param y Block y, relative to the first sampled corner
+     * @param z Block z, relative to the first sampled corner
+     */
+    private static double interpolateWeight(double[] weights, int sizeY, int sizeZ, int x, int y, int z) {
+        int cx = x >> 2, cy = y >> 2, cz = z >> 2;
+        double tx = (x & 3) / 4d, ty = (y & 3) / 4d, tz = (z & 3) / 4d;
+        int i000 = (cx * sizeZ + cz) * sizeY + cy;
+        int i001 = i000 + sizeY;
+        int i100 = i000 + sizeZ * sizeY;
+        int i101 = i100 + sizeY;
+        double y00 = MathHelper.lerp(ty, weights[i000], weights[i000 + 1]);
+        double y01 = MathHelper.lerp(ty, weights[i001], weights[i001 + 1]);
+        double y10 = MathHelper.lerp(ty, weights[i100], weights[i100 + 1]);
+        double y11 = MathHelper.lerp(ty, weights[i101], weights[i101 + 1]);
+        return MathHelper.lerp(tx, MathHelper.lerp(tz, y00, y01), MathHelper.lerp(tz, y10, y11));
+    }
+
     @Override
     public void generateFeatures(StructureWorldAccess world, Chunk chunk, StructureAccessor structureAccessor) {
         super.generateFeatures(world, chunk, structureAccessor);
@@ -190,7 +286,7 @@ public class MinecraftChunkGeneratorWrapper extends net.minecraft.world.gen.chun
 
     @Override
     public int getHeight(int x, int z, Type heightmap, HeightLimitView height, NoiseConfig noiseConfig) {
-        WorldProperties properties = MinecraftAdapter.adapt(height, SeedHack.getSeed(noiseConfig.getMultiNoiseSampler()));
+        WorldProperties properties = MinecraftAdapter.adapt(height, seeds.getSeed(noiseConfig.getMultiNoiseSampler()));
         BiomeProvider biomeProvider = pack.getBiomeProvider();
         int min = height.getBottomY();
         for(int y = height.getTopYInclusive() - 1; y >= min; y--) {
@@ -207,7 +303,7 @@ public class MinecraftChunkGeneratorWrapper extends net.minecraft.world.gen.chun
     @Override
     public VerticalBlockSample getColumnSample(int x, int z, HeightLimitView height, NoiseConfig noiseConfig) {
         BlockState[] array = new BlockState[height.getHeight()];
-        WorldProperties properties = MinecraftAdapter.adapt(height, SeedHack.getSeed(noiseConfig.getMultiNoiseSampler()));
+        WorldProperties properties = MinecraftAdapter.adapt(height, seeds.getSeed(noiseConfig.getMultiNoiseSampler()));
         BiomeProvider biomeProvider = pack.getBiomeProvider();
         for(int y = height.getTopYInclusive() - 1; y >= height.getBottomY(); y--) {
             com.dfsek.terra.api.block.state.BlockState terraBlockState = delegate.getBlock(properties, x, y, z, biomeProvider);
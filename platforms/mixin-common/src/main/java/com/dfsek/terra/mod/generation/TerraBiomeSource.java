@@ -17,6 +17,8 @@
 
 package com.dfsek.terra.mod.generation;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.mojang.serialization.MapCodec;
 import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.world.biome.Biome;
@@ -29,6 +31,7 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.util.cache.NoiseBiomeCache;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.mod.config.ProtoPlatformBiome;
 import com.dfsek.terra.mod.data.Codecs;
@@ -38,6 +41,17 @@ import com.dfsek.terra.mod.util.SeedHack;
 public class TerraBiomeSource extends BiomeSource {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TerraBiomeSource.class);
+    private static final int CACHE_SECTIONS = 4096;
+    /**
+     * Maximum number of seeds to keep biome caches for, the least recently used seed's cache is dropped beyond it.
+     */
+    private static final int MAX_SEEDS = 8;
+
+    private final Cache<Long, NoiseBiomeCache<RegistryEntry<Biome>>> caches = Caffeine
+        .newBuilder()
+        .maximumSize(MAX_SEEDS)
+        .build();
+    private final SeedHack.Lookup seeds = new SeedHack.Lookup();
     private ConfigPack pack;
 
     public TerraBiomeSource(ConfigPack pack) {
@@ -62,10 +76,14 @@ public class TerraBiomeSource extends BiomeSource {
 
     @Override
     public RegistryEntry<Biome> getBiome(int biomeX, int biomeY, int biomeZ, MultiNoiseSampler Sampler) {
-        return ((ProtoPlatformBiome) pack
-            .getBiomeProvider()
-            .getBiome(biomeX << 2, biomeY << 2, biomeZ << 2, SeedHack.getSeed(Sampler))
-            .getPlatformBiome()).getDelegate();
+        return caches.get(seeds.getSeed(Sampler), this::createCache).get(biomeX, biomeY, biomeZ);
+    }
+
+    private NoiseBiomeCache<RegistryEntry<Biome>> createCache(long seed) {
+        BiomeProvider provider = pack.getBiomeProvider();
+        return new NoiseBiomeCache<>(CACHE_SECTIONS, (x, y, z) -> ((ProtoPlatformBiome) provider
+            .getBiome(x << 2, y << 2, z << 2, seed)
+            .getPlatformBiome()).getDelegate());
     }
 
     public BiomeProvider getProvider() {
@@ -78,5 +96,6 @@ public class TerraBiomeSource extends BiomeSource {
 
     public void setPack(ConfigPack pack) {
         this.pack = pack;
+        caches.invalidateAll();
     }
 }
@@ -52,17 +52,23 @@ public abstract class ProtoChunkMixin extends Chunk {
     @Shadow
     public abstract HeightLimitView getHeightLimitView();
 
+    /**
+     * Writes directly to the section's palette. This only happens while populating noise, where the chunk is private to the
+     * generating thread, so the section is not locked. Heightmaps are not updated per block, they are populated once the
+     * terrain is done in {@link com.dfsek.terra.mod.generation.MinecraftChunkGeneratorWrapper}.
+     */
     public void terra$setBlock(int x, int y, int z, @NotNull BlockState data) {
-        BlockPos blockPos = new BlockPos(x, y, z);
+        if(isOutOfHeightLimit(y)) return;
         boolean isExtended = data.isExtended() && data.getClass().equals(BlockStateArgument.class);
+        net.minecraft.block.BlockState blockState;
         if(isExtended) {
             BlockStateExtended blockStateExtended = (BlockStateExtended) data;
 
-            net.minecraft.block.BlockState blockState = (net.minecraft.block.BlockState) blockStateExtended.getState();
-            this.setBlockState(blockPos, blockState, 0);
+            blockState = (net.minecraft.block.BlockState) blockStateExtended.getState();
         } else {
-            this.setBlockState(blockPos, (net.minecraft.block.BlockState) data, 0);
+            blockState = (net.minecraft.block.BlockState) data;
         }
+        getSection(getSectionIndex(y)).setBlockState(x & 15, y & 15, z & 15, blockState, false);
     }
 
     public @NotNull BlockState terra$getBlock(int x, int y, int z) {
@@ -1,7 +1,7 @@
 package com.dfsek.terra.mod.util;
 
-import it.unimi.dsi.fastutil.objects.Object2LongMap;
-import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import net.minecraft.world.biome.source.util.MultiNoiseUtil.MultiNoiseSampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,17 +13,40 @@ import org.slf4j.LoggerFactory;
 public class SeedHack {
     private static final Logger LOGGER = LoggerFactory.getLogger(SeedHack.class);
 
-    private static final Object2LongMap<MultiNoiseSampler> seedMap = new Object2LongOpenHashMap<>();
+    /**
+     * Seeds of registered samplers. Weak keys compare samplers by identity, and drop them once their noise config is gone.
+     */
+    private static final Cache<MultiNoiseSampler, Long> seedMap = Caffeine.newBuilder().weakKeys().build();
 
     public static long getSeed(MultiNoiseSampler sampler) {
-        if(!seedMap.containsKey(sampler)) {
+        Long seed = seedMap.getIfPresent(sampler);
+        if(seed == null) {
             throw new IllegalArgumentException("Sampler is not registered: " + sampler);
         }
-        return seedMap.getLong(sampler);
+        return seed;
     }
 
     public static void register(MultiNoiseSampler sampler, long seed) {
-        LOGGER.info("Registered seed {} to sampler {}", seed, sampler.hashCode());
+        LOGGER.info("Registered seed {} to sampler {}", seed, System.identityHashCode(sampler));
         seedMap.put(sampler, seed);
     }
+
+    /**
+     * Remembers the last sampler looked up through it. A biome source or chunk generator almost always sees the sampler of its
+     * own world, so most lookups are a field read rather than a map lookup.
+     */
+    public static class Lookup {
+        private volatile Entry last;
+
+        public long getSeed(MultiNoiseSampler sampler) {
+            Entry entry = last;
+            if(entry != null && entry.sampler() == sampler) return entry.seed();
+            long seed = SeedHack.getSeed(sampler);
+            last = new Entry(sampler, seed);
+            return seed;
+        }
+
+        private record Entry(MultiNoiseSampler sampler, long seed) {
+        }
+    }
 }